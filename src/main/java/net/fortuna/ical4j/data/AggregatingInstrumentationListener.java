@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An instrumentation listener that aggregates measurements, suitable for periodic collection by a metrics system.
+ * The time spent in each phase is recorded in a histogram of exponential buckets, where bucket <code>i</code> counts
+ * occurrences taking at least <code>2^(i-1)</code> and less than <code>2^i</code> nanoseconds (bucket zero counts
+ * occurrences measured as zero nanoseconds).
+ * <p/>
+ * Component and property counts are keyed by name. As names are determined by the parsed content, at most
+ * {@link #MAX_NAMES} distinct names of each are counted individually, and any further names are counted as
+ * {@link #OTHER}.
+ * <p/>
+ * Instances are thread-safe and may be shared by multiple builders and outputters.
+ */
+public class AggregatingInstrumentationListener implements InstrumentationListener {
+
+    /**
+     * The number of buckets in each phase histogram.
+     */
+    public static final int BUCKET_COUNT = 64;
+
+    /**
+     * The maximum number of distinct component names, and of distinct property names, counted individually.
+     */
+    public static final int MAX_NAMES = 1024;
+
+    /**
+     * The key of the count of components or properties whose names exceed {@link #MAX_NAMES}.
+     */
+    public static final String OTHER = "OTHER";
+
+    private final Map<Phase, PhaseMetrics> phases = new EnumMap<>(Phase.class);
+
+    private final LongAdder linesUnfolded = new LongAdder();
+
+    private final ConcurrentMap<String, LongAdder> components = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> properties = new ConcurrentHashMap<>();
+
+    public AggregatingInstrumentationListener() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseMetrics());
+        }
+    }
+
+    @Override
+    public void phase(Phase phase, long nanos) {
+        final PhaseMetrics metrics = phases.get(phase);
+        metrics.count.increment();
+        metrics.nanos.add(nanos);
+        metrics.histogram.incrementAndGet(bucket(nanos));
+    }
+
+    @Override
+    public void bytes(Phase phase, long count) {
+        phases.get(phase).bytes.add(count);
+    }
+
+    @Override
+    public void linesUnfolded(int count) {
+        linesUnfolded.add(count);
+    }
+
+    @Override
+    public void component(String name) {
+        increment(components, name);
+    }
+
+    @Override
+    public void property(String name) {
+        increment(properties, name);
+    }
+
+    @Override
+    public void failure(Phase phase, Exception cause) {
+        phases.get(phase).failures.increment();
+    }
+
+    /**
+     * @param phase a phase
+     * @return the number of occurrences of the phase measured
+     */
+    public long getCount(Phase phase) {
+        return phases.get(phase).count.sum();
+    }
+
+    /**
+     * @param phase a phase
+     * @return the total time spent in the phase in nanoseconds
+     */
+    public long getTotalNanos(Phase phase) {
+        return phases.get(phase).nanos.sum();
+    }
+
+    /**
+     * @param phase a phase
+     * @return a copy of the histogram of time spent in the phase
+     */
+    public long[] getHistogram(Phase phase) {
+        final AtomicLongArray histogram = phases.get(phase).histogram;
+        final long[] buckets = new long[histogram.length()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = histogram.get(i);
+        }
+        return buckets;
+    }
+
+    /**
+     * @param phase a phase
+     * @return the total number of octets reported for the phase
+     */
+    public long getBytes(Phase phase) {
+        return phases.get(phase).bytes.sum();
+    }
+
+    /**
+     * @param phase a phase
+     * @return the number of failures in the phase
+     */
+    public long getFailures(Phase phase) {
+        return phases.get(phase).failures.sum();
+    }
+
+    /**
+     * @return the total number of lines unfolded
+     */
+    public long getLinesUnfolded() {
+        return linesUnfolded.sum();
+    }
+
+    /**
+     * @return the number of components parsed, keyed by upper-case component name
+     */
+    public Map<String, Long> getComponentCounts() {
+        return counts(components);
+    }
+
+    /**
+     * @return the number of properties parsed, keyed by upper-case property name
+     */
+    public Map<String, Long> getPropertyCounts() {
+        return counts(properties);
+    }
+
+    /**
+     * Resets all measurements.
+     */
+    public void reset() {
+        for (PhaseMetrics metrics : phases.values()) {
+            metrics.reset();
+        }
+        linesUnfolded.reset();
+        components.clear();
+        properties.clear();
+    }
+
+    /**
+     * @param nanos an elapsed time in nanoseconds
+     * @return the index of the histogram bucket for the specified time
+     */
+    static int bucket(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)), BUCKET_COUNT - 1);
+    }
+
+    private static void increment(ConcurrentMap<String, LongAdder> counts, String name) {
+        final String key = name.toUpperCase();
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            count = counts.computeIfAbsent(counts.size() < MAX_NAMES ? key : OTHER, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private static Map<String, Long> counts(Map<String, LongAdder> adders) {
+        final Map<String, Long> counts = new TreeMap<>();
+        adders.forEach((name, count) -> counts.put(name, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static final class PhaseMetrics {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+
+        private void reset() {
+            count.reset();
+            nanos.reset();
+            bytes.reset();
+            failures.reset();
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+}
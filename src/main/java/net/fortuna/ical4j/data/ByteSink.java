@@ -0,0 +1,393 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes iCalendar content directly to UTF-8 octets. Characters are escaped, encoded and folded in a single pass
+ * into a reusable buffer, which is written to the underlying output stream or byte buffer when full and on flush,
+ * avoiding the intermediate strings otherwise required to serialize a calendar model.
+ * <p/>
+ * Lines are folded in the same way as {@link FoldingWriter}, such that they do not exceed the fold length in
+ * octets. A byte sink is not thread-safe, but may be reused for multiple calendars written to the same target.
+ *
+ * @see net.fortuna.ical4j.model.Property#writeTo(ByteSink)
+ * @see net.fortuna.ical4j.model.Parameter#writeTo(ByteSink)
+ * @see net.fortuna.ical4j.model.Component#writeTo(ByteSink)
+ */
+public class ByteSink implements Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The maximum number of octets written for a single character, including a fold.
+     */
+    private static final int MAX_CHAR_OCTETS = 8;
+
+    private static final byte[] FOLD_PATTERN = {'\r', '\n', ' '};
+
+    private final OutputStream out;
+
+    private final ByteBuffer target;
+
+    private final int foldLength;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int count;
+
+    /**
+     * The number of octets written to the underlying stream or byte buffer.
+     */
+    private long written;
+
+    /**
+     * The length of the current line in octets.
+     */
+    private int lineLength;
+
+    /**
+     * A high surrogate awaiting its low surrogate, or zero.
+     */
+    private char highSurrogate;
+
+    /**
+     * @param out an output stream to write encoded octets to
+     */
+    public ByteSink(final OutputStream out) {
+        this(out, FoldingWriter.REDUCED_FOLD_LENGTH);
+    }
+
+    /**
+     * @param out        an output stream to write encoded octets to
+     * @param foldLength the maximum line length in octets
+     */
+    public ByteSink(final OutputStream out, final int foldLength) {
+        this(out, null, foldLength);
+    }
+
+    /**
+     * @param target     a byte buffer to write encoded octets to. A {@link java.nio.BufferOverflowException} is thrown
+     *                   where the buffer has insufficient space remaining
+     * @param foldLength the maximum line length in octets
+     */
+    public ByteSink(final ByteBuffer target, final int foldLength) {
+        this(null, target, foldLength);
+    }
+
+    private ByteSink(final OutputStream out, final ByteBuffer target, final int foldLength) {
+        this.out = out;
+        this.target = target;
+        this.foldLength = Math.min(foldLength, FoldingWriter.MAX_FOLD_LENGTH);
+    }
+
+    /**
+     * Appends a character.
+     * @param c a character
+     * @return this sink
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final ByteSink append(final char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Appends a sequence of characters without escaping.
+     * @param chars a sequence of characters
+     * @return this sink
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final ByteSink append(final CharSequence chars) throws IOException {
+        for (int i = 0; i < chars.length(); i++) {
+            write(chars.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Appends a text value, escaping backslash, newline and special characters as for
+     * {@link net.fortuna.ical4j.model.PropertyCodec}.
+     * @param chars a text value
+     * @return this sink
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final ByteSink appendText(final CharSequence chars) throws IOException {
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            switch (c) {
+                case '\n':
+                    write('\\');
+                    write('n');
+                    break;
+                case '\\':
+                case ',':
+                case ';':
+                case '"':
+                    write('\\');
+                    write(c);
+                    break;
+                default:
+                    write(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends a parameter value, encoding caret, newline and quote characters and quoting the value where required
+     * as for {@link net.fortuna.ical4j.model.ParameterCodec}.
+     * @param chars a parameter value
+     * @return this sink
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final ByteSink appendParameterValue(final CharSequence chars) throws IOException {
+        final boolean quoted = isQuotable(chars);
+        if (quoted) {
+            write('"');
+        }
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            switch (c) {
+                case '^':
+                    write('^');
+                    write('^');
+                    break;
+                case '\n':
+                    write('^');
+                    write('n');
+                    break;
+                case '"':
+                    write('^');
+                    write('\'');
+                    break;
+                default:
+                    write(c);
+            }
+        }
+        if (quoted) {
+            write('"');
+        }
+        return this;
+    }
+
+    /**
+     * Appends a previously encoded content line, including its line separator, verbatim. The line is appended only
+     * where it is written at the start of a line and requires no folding, such that the result is identical to
+     * appending the line content.
+     * @param line the UTF-8 octets of a content line terminated by a line separator
+     * @return true if the line was appended, otherwise false and nothing is written
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final boolean appendLine(final byte[] line) throws IOException {
+        // a line separator is folded where the line content reaches the fold length..
+        if (lineLength > 0 || highSurrogate != 0 || line.length - 2 >= foldLength) {
+            return false;
+        }
+        if (count + line.length > buffer.length) {
+            writeBuffer();
+        }
+        System.arraycopy(line, 0, buffer, count, line.length);
+        count += line.length;
+        return true;
+    }
+
+    /**
+     * Appends one or more previously encoded and folded content lines verbatim. As the lines are folded
+     * independently of any preceding content they must be appended at the start of a line.
+     * @param lines the UTF-8 octets of content lines terminated by a line separator
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    final void appendLines(final byte[] lines) throws IOException {
+        if (lineLength > 0 || highSurrogate != 0) {
+            throw new IllegalStateException("Encoded lines must be appended at the start of a line");
+        }
+        if (count + lines.length > buffer.length) {
+            writeBuffer();
+        }
+        if (lines.length > buffer.length) {
+            if (out != null) {
+                out.write(lines);
+            } else {
+                target.put(lines);
+            }
+            written += lines.length;
+        } else {
+            System.arraycopy(lines, 0, buffer, count, lines.length);
+            count += lines.length;
+        }
+    }
+
+    /**
+     * Terminates the current content line.
+     * @return this sink
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    public final ByteSink endLine() throws IOException {
+        write('\r');
+        write('\n');
+        return this;
+    }
+
+    /**
+     * @return the number of octets written to the underlying stream or byte buffer, excluding any buffered octets
+     * not yet flushed
+     */
+    public final long getBytesWritten() {
+        return written;
+    }
+
+    /**
+     * Writes any buffered octets to the underlying stream or byte buffer and flushes the stream.
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    @Override
+    public final void flush() throws IOException {
+        writeBuffer();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes any buffered octets and closes the underlying stream.
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (highSurrogate != 0) {
+            // an unpaired surrogate is replaced as for a charset encoder..
+            buffer[count++] = '?';
+            highSurrogate = 0;
+        }
+        writeBuffer();
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    private void write(final char c) throws IOException {
+        final int octets;
+        if (c < 0x80) {
+            octets = 1;
+        } else if (c < 0x800) {
+            octets = 2;
+        } else if (Character.isHighSurrogate(c)) {
+            octets = 4;
+        } else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+            octets = 0;
+        } else {
+            octets = 3;
+        }
+
+        if (count + MAX_CHAR_OCTETS > buffer.length) {
+            writeBuffer();
+        }
+
+        if (octets > 0) {
+            if (highSurrogate != 0) {
+                // an unpaired surrogate is replaced as for a charset encoder..
+                buffer[count++] = '?';
+                highSurrogate = 0;
+            }
+            // fold before any character that would exceed the fold length..
+            if (lineLength + octets > foldLength) {
+                System.arraycopy(FOLD_PATTERN, 0, buffer, count, FOLD_PATTERN.length);
+                count += FOLD_PATTERN.length;
+                // re-initialise to 1 to account for the space in fold pattern..
+                lineLength = 1;
+            }
+        }
+
+        if (c == '\r' || c == '\n') {
+            lineLength = 0;
+        } else {
+            lineLength += octets;
+        }
+
+        switch (octets) {
+            case 1:
+                buffer[count++] = (byte) c;
+                break;
+            case 2:
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                break;
+            case 4:
+                highSurrogate = c;
+                break;
+            case 0:
+                final int codePoint = Character.toCodePoint(highSurrogate, c);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                highSurrogate = 0;
+                break;
+            default:
+                if (Character.isSurrogate(c)) {
+                    buffer[count++] = '?';
+                } else {
+                    buffer[count++] = (byte) (0xE0 | (c >> 12));
+                    buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+        }
+    }
+
+    private static boolean isQuotable(final CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            if (c == ':' || c == ';' || c == ',' || c > 0x7F) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeBuffer() throws IOException {
+        if (count > 0) {
+            if (out != null) {
+                out.write(buffer, 0, count);
+            } else {
+                target.put(buffer, 0, count);
+            }
+            written += count;
+            count = 0;
+        }
+    }
+}
@@ -32,19 +32,47 @@
 package net.fortuna.ical4j.data;
 
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.CalendarException;
+import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.ParameterFactoryRegistry;
 import net.fortuna.ical4j.model.PropertyFactoryRegistry;
 import net.fortuna.ical4j.model.TimeZone;
 import net.fortuna.ical4j.model.TimeZoneRegistry;
 import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+import net.fortuna.ical4j.model.component.CalendarComponent;
 
+import java.io.CharArrayReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parses and builds an iCalendar model from an input stream. Note that this class is not thread-safe.
@@ -62,10 +90,24 @@ public class CalendarBuilder implements Consumer<Calendar> {
 
     private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * The minimum number of components parsed by a single task when building in parallel.
+     */
+    private static final int MIN_BATCH_SIZE = 64;
+
+    /**
+     * The number of tasks created per thread when building in parallel, to balance uneven component sizes.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
     private final CalendarParser parser;
 
     private final ContentHandler contentHandler;
 
+    private final ContentHandlerContext contentHandlerContext;
+
     private final TimeZoneRegistry tzRegistry;
 
     /**
@@ -79,7 +121,8 @@ public class CalendarBuilder implements Consumer<Calendar> {
     public CalendarBuilder() {
         this.parser = CalendarParserFactory.getInstance().get();
         this.tzRegistry = TimeZoneRegistryFactory.getInstance().createRegistry();
-        this.contentHandler = new DefaultContentHandler(this, tzRegistry);
+        this.contentHandlerContext = new ContentHandlerContext();
+        this.contentHandler = new DefaultContentHandler(this, tzRegistry, contentHandlerContext);
     }
 
     /**
@@ -90,7 +133,8 @@ public class CalendarBuilder implements Consumer<Calendar> {
     public CalendarBuilder(final CalendarParser parser) {
         this.parser = parser;
         this.tzRegistry = TimeZoneRegistryFactory.getInstance().createRegistry();
-        this.contentHandler = new DefaultContentHandler(this, tzRegistry);
+        this.contentHandlerContext = new ContentHandlerContext();
+        this.contentHandler = new DefaultContentHandler(this, tzRegistry, contentHandlerContext);
     }
 
     /**
@@ -101,7 +145,8 @@ public class CalendarBuilder implements Consumer<Calendar> {
     public CalendarBuilder(final TimeZoneRegistry tzRegistry) {
         this.parser = CalendarParserFactory.getInstance().get();
         this.tzRegistry = tzRegistry;
-        this.contentHandler = new DefaultContentHandler(this, tzRegistry);
+        this.contentHandlerContext = new ContentHandlerContext();
+        this.contentHandler = new DefaultContentHandler(this, tzRegistry, contentHandlerContext);
     }
 
     /**
@@ -115,7 +160,8 @@ public class CalendarBuilder implements Consumer<Calendar> {
     public CalendarBuilder(CalendarParser parser, TimeZoneRegistry tzRegistry) {
         this.parser = parser;
         this.tzRegistry = tzRegistry;
-        this.contentHandler = new DefaultContentHandler(this, tzRegistry);
+        this.contentHandlerContext = new ContentHandlerContext();
+        this.contentHandler = new DefaultContentHandler(this, tzRegistry, contentHandlerContext);
     }
 
     /**
@@ -139,6 +185,7 @@ public class CalendarBuilder implements Consumer<Calendar> {
 
         this.parser = parser;
         this.tzRegistry = tzRegistry;
+        this.contentHandlerContext = contentHandlerContext;
         this.contentHandler = new DefaultContentHandler(this, tzRegistry, contentHandlerContext);
     }
 
@@ -156,12 +203,55 @@ public class CalendarBuilder implements Consumer<Calendar> {
      * @throws ParserException where an error occurs parsing data from the stream
      */
     public Calendar build(final InputStream in) throws IOException, ParserException {
+        final InstrumentationListener instrumentation = contentHandlerContext.getInstrumentation();
+        if (instrumentation != null) {
+            final CountingInputStream countingIn = new CountingInputStream(in);
+            try {
+                return buildStream(countingIn);
+            } finally {
+                instrumentation.bytes(InstrumentationListener.Phase.PARSE, countingIn.count);
+            }
+        }
+        return buildStream(in);
+    }
+
+    private Calendar buildStream(final InputStream in) throws IOException, ParserException {
+        if (parser instanceof ContentLineParser) {
+            // parse bytes directly..
+            return parse(() -> parser.parse(in, contentHandler));
+        }
         return build(new InputStreamReader(in, DEFAULT_CHARSET));
     }
 
+    /**
+     * Builds an iCalendar model from the specified file. Where the parser is a {@link ContentLineParser} the
+     * file is mapped into memory and parsed in place, otherwise it is read as per {@link #build(InputStream)}.
+     *
+     * @param path the path of a file to read calendar data from
+     * @return a calendar parsed from the specified file
+     * @throws IOException     where an error occurs reading data from the specified file
+     * @throws ParserException where an error occurs parsing data from the file
+     * @see ContentLineParser#parse(FileChannel, ContentHandler)
+     */
+    public Calendar build(final Path path) throws IOException, ParserException {
+        if (parser instanceof ContentLineParser) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (contentHandlerContext.getInstrumentation() != null) {
+                    contentHandlerContext.getInstrumentation().bytes(InstrumentationListener.Phase.PARSE,
+                            channel.size());
+                }
+                return parse(() -> ((ContentLineParser) parser).parse(channel, contentHandler));
+            }
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return build(in);
+        }
+    }
+
     /**
      * Builds an iCalendar model from the specified reader. An <code>UnfoldingReader</code> is applied to the
-     * specified reader to ensure the data stream is correctly unfolded where appropriate.
+     * specified reader to ensure the data stream is correctly unfolded where appropriate, unless the parser
+     * performs unfolding itself (i.e. {@link ContentLineParser}).
      *
      * @param in a reader to read calendar data from
      * @return a calendar parsed from the specified reader
@@ -169,6 +259,9 @@ public class CalendarBuilder implements Consumer<Calendar> {
      * @throws ParserException where an error occurs parsing data from the reader
      */
     public Calendar build(final Reader in) throws IOException, ParserException {
+        if (parser instanceof ContentLineParser) {
+            return parse(() -> parser.parse(in, contentHandler));
+        }
         return build(new UnfoldingReader(in));
     }
 
@@ -181,10 +274,310 @@ public class CalendarBuilder implements Consumer<Calendar> {
      * @throws ParserException where an error occurs parsing data from the reader
      */
     public Calendar build(final UnfoldingReader uin) throws IOException, ParserException {
-        parser.parse(uin, contentHandler);
+        return parse(() -> parseUnfolded(uin));
+    }
+
+    private void parseUnfolded(final UnfoldingReader uin) throws IOException, ParserException {
+        try {
+            parser.parse(uin, contentHandler);
+        } finally {
+            if (contentHandlerContext.getInstrumentation() != null) {
+                contentHandlerContext.getInstrumentation().linesUnfolded(uin.getLinesUnfolded());
+            }
+        }
+    }
+
+    /**
+     * Performs the specified parse, reporting the time taken and any failure to the instrumentation of the
+     * content handler context, if enabled.
+     */
+    private Calendar parse(final ParseAction action) throws IOException, ParserException {
+        final InstrumentationListener instrumentation = contentHandlerContext.getInstrumentation();
+        if (instrumentation == null) {
+            action.parse();
+            return calendar;
+        }
+        final long start = System.nanoTime();
+        try {
+            action.parse();
+        } catch (IOException | ParserException | RuntimeException e) {
+            instrumentation.failure(InstrumentationListener.Phase.PARSE, e);
+            throw e;
+        } finally {
+            instrumentation.phase(InstrumentationListener.Phase.PARSE, System.nanoTime() - start);
+        }
         return calendar;
     }
 
+    /**
+     * Builds an iCalendar model from the specified input stream, parsing components in parallel.
+     *
+     * @param in an input stream to read calendar data from
+     * @param pool the pool used to parse components
+     * @return a calendar parsed from the specified input stream
+     * @throws IOException     where an error occurs reading data from the specified stream
+     * @throws ParserException where an error occurs parsing data from the stream
+     * @see #build(Reader, ForkJoinPool)
+     */
+    public Calendar build(final InputStream in, final ForkJoinPool pool) throws IOException, ParserException {
+        final InstrumentationListener instrumentation = contentHandlerContext.getInstrumentation();
+        if (instrumentation != null) {
+            final CountingInputStream countingIn = new CountingInputStream(in);
+            try {
+                return build(new InputStreamReader(countingIn, DEFAULT_CHARSET), pool);
+            } finally {
+                instrumentation.bytes(InstrumentationListener.Phase.PARSE, countingIn.count);
+            }
+        }
+        return build(new InputStreamReader(in, DEFAULT_CHARSET), pool);
+    }
+
+    /**
+     * Builds an iCalendar model from the specified reader, parsing components in parallel. The data is read in
+     * full and split at the boundaries of top-level components, which are then parsed in batches using the
+     * specified pool and added to the calendar in their original order. All VTIMEZONE components are parsed and
+     * registered before any other components, so that TZID references are resolved as for a sequential build.
+     * <p/>
+     * The {@link ContentProjection projection} of the content handler context is applied to the top-level
+     * components of the calendar as a whole before they are divided into batches, such that the same components
+     * are included (and the limit reached) as for a sequential build.
+     * <p/>
+     * Components are parsed using a {@link ContentLineParser}, regardless of the parser specified for this
+     * builder. The timezone registry of this builder must support concurrent access. Data that is not a single
+     * well-formed VCALENDAR, or where VTIMEZONE components follow the limit of the projection (and so are included
+     * according to the timezones referenced), is built sequentially, as per {@link #build(Reader)}.
+     *
+     * @param in a reader to read calendar data from
+     * @param pool the pool used to parse components
+     * @return a calendar parsed from the specified reader
+     * @throws IOException     where an error occurs reading data from the specified reader
+     * @throws ParserException where an error occurs parsing data from the reader
+     */
+    public Calendar build(final Reader in, final ForkJoinPool pool) throws IOException, ParserException {
+        return parse(() -> parseParallel(in, pool));
+    }
+
+    private void parseParallel(final Reader in, final ForkJoinPool pool) throws IOException, ParserException {
+        char[] data = new char[DEFAULT_BUFFER_SIZE];
+        int length = 0;
+        int read;
+        while ((read = in.read(data, length, data.length - length)) >= 0) {
+            length += read;
+            if (length == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+        }
+
+        final CalendarChunks chunks = CalendarChunks.split(data, length);
+        final List<Integer> included = chunks != null ? getIncludedComponents(chunks) : null;
+        if (included == null) {
+            final Reader reader = new CharArrayReader(data, 0, length);
+            if (parser instanceof ContentLineParser) {
+                parser.parse(reader, contentHandler);
+            } else {
+                parseUnfolded(new UnfoldingReader(reader));
+            }
+            return;
+        }
+
+        final ContentProjection projection = contentHandlerContext.getProjection();
+        final ContentHandlerContext batchContext = projection.getLimit() > 0
+                ? contentHandlerContext.withProjection(projection.withLimit(0)) : contentHandlerContext;
+
+        final ContentLineParser chunkParser = getStreamParser();
+        final CalendarComponent[] components = new CalendarComponent[chunks.getComponents().size()];
+
+        parseChunks(chunkParser, chunks, chunks.getProperties(), contentHandler);
+        // timezones must be registered before TZID references in other components are resolved..
+        parseComponents(chunkParser, chunks, included, components, true, batchContext, pool);
+        parseComponents(chunkParser, chunks, included, components, false, batchContext, pool);
+
+        final List<CalendarComponent> parsed = new ArrayList<>(included.size());
+        for (CalendarComponent component : components) {
+            if (component != null) {
+                parsed.add(component);
+            }
+        }
+        calendar.getComponents().addAll(parsed);
+    }
+
+    /**
+     * Applies the projection to the calendar as a whole, as the limit cannot be applied per batch.
+     *
+     * @param chunks the split calendar data
+     * @return the indices of the included top-level components, or null if VTIMEZONE components follow the limit
+     */
+    private List<Integer> getIncludedComponents(final CalendarChunks chunks) {
+        final ContentProjection projection = contentHandlerContext.getProjection();
+        final ContentProjection.Scope scope = projection.newScope();
+        final List<Integer> included = new ArrayList<>();
+        for (int i = 0; i < chunks.getComponents().size(); i++) {
+            final CalendarChunks.Chunk chunk = chunks.getComponents().get(i);
+            if (scope.startComponent(chunk.getName())) {
+                included.add(i);
+            } else if (scope.isComplete() && chunk.isTimezone()
+                    && projection.includesComponent(Component.VTIMEZONE)) {
+                // inclusion depends on the timezones referenced by the included content..
+                return null;
+            }
+            scope.endComponent();
+        }
+        return included;
+    }
+
+    private void parseComponents(final ContentLineParser chunkParser, final CalendarChunks chunks,
+                                 final List<Integer> included, final CalendarComponent[] components,
+                                 final boolean timezones, final ContentHandlerContext batchContext,
+                                 final ForkJoinPool pool) throws IOException, ParserException {
+
+        final List<Integer> indices = new ArrayList<>();
+        for (Integer i : included) {
+            if (chunks.getComponents().get(i).isTimezone() == timezones) {
+                indices.add(i);
+            }
+        }
+        if (indices.isEmpty()) {
+            return;
+        }
+
+        final int batchCount = Math.max(1, Math.min(pool.getParallelism() * BATCHES_PER_THREAD,
+                indices.size() / MIN_BATCH_SIZE));
+        final int batchSize = (indices.size() + batchCount - 1) / batchCount;
+
+        // errors are returned rather than thrown by tasks, as the pool may otherwise rewrap them..
+        final List<Callable<Exception>> tasks = new ArrayList<>();
+        for (int start = 0; start < indices.size(); start += batchSize) {
+            final List<Integer> batch = indices.subList(start, Math.min(start + batchSize, indices.size()));
+            tasks.add(() -> {
+                final List<CalendarChunks.Chunk> batchChunks = new ArrayList<>(batch.size());
+                for (Integer index : batch) {
+                    batchChunks.add(chunks.getComponents().get(index));
+                }
+                final List<CalendarComponent> parsed = new ArrayList<>(batch.size());
+                try {
+                    parseChunks(chunkParser, chunks, batchChunks, new DefaultContentHandler(c -> {}, tzRegistry,
+                            batchContext, parsed::add));
+                } catch (IOException | ParserException | RuntimeException e) {
+                    return e;
+                }
+
+                // each included chunk yields a single top-level component..
+                for (int i = 0; i < parsed.size(); i++) {
+                    components[batch.get(i)] = parsed.get(i);
+                }
+                return null;
+            });
+        }
+
+        final List<Future<Exception>> results = pool.invokeAll(tasks);
+        for (Future<Exception> result : results) {
+            final Exception e;
+            try {
+                e = result.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ie.getMessage());
+            } catch (ExecutionException ee) {
+                throw new CalendarException(ee.getCause());
+            }
+            // report the first error in the data..
+            if (e instanceof ParserException) {
+                throw (ParserException) e;
+            } else if (e instanceof IOException) {
+                throw (IOException) e;
+            } else if (e != null) {
+                throw (RuntimeException) e;
+            }
+        }
+    }
+
+    private static void parseChunks(final ContentLineParser chunkParser, final CalendarChunks chunks,
+                                    final List<CalendarChunks.Chunk> batch, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        try {
+            chunkParser.parse(chunks.reader(batch), handler);
+        } catch (ParserException e) {
+            // report the line number of the source data rather than the chunk..
+            final String message = e.getMessage().substring(e.getMessage().indexOf(':') + 1);
+            throw new ParserException(message, CalendarChunks.getSourceLine(batch, e.getLineNo()),
+                    e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Returns a stream of the top-level components parsed from the specified input stream.
+     *
+     * @param in an input stream to read calendar data from
+     * @return a lazily parsed stream of calendar components
+     * @see #stream(Reader)
+     */
+    public Stream<CalendarComponent> stream(final InputStream in) {
+        final ContentLineParser streamParser = getStreamParser();
+        if (contentHandlerContext.getInstrumentation() != null) {
+            final CountingInputStream countingIn = new CountingInputStream(in);
+            return stream(new ComponentIterator(handler -> streamParser.start(countingIn, handler),
+                    () -> countingIn.count));
+        }
+        return stream(new ComponentIterator(handler -> streamParser.start(in, handler), null));
+    }
+
+    /**
+     * Returns a stream of the top-level components parsed from the specified file. The file is mapped into
+     * memory and parsed in place, and remains open until the stream is closed.
+     *
+     * @param path the path of a file to read calendar data from
+     * @return a lazily parsed stream of calendar components
+     * @throws IOException where an error occurs opening the specified file
+     * @see #stream(Reader)
+     */
+    public Stream<CalendarComponent> stream(final Path path) throws IOException {
+        final ContentLineParser streamParser = getStreamParser();
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        final long size = channel.size();
+        return stream(new ComponentIterator(handler -> streamParser.start(channel, 0, handler),
+                () -> size)).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns a stream of the top-level components parsed from the specified reader. Content is parsed only as
+     * far as required to produce the next component, and components are not retained once consumed, so that
+     * arbitrarily large calendars may be processed in bounded memory.
+     * <p/>
+     * Parsed VTIMEZONE components are included in the stream and registered with the timezone registry. As
+     * TZID references are resolved at the end of each component, they will not be resolved against VTIMEZONE
+     * definitions that appear later in the data. Calendar properties are discarded.
+     * <p/>
+     * Parsing is incremental and so always uses a {@link ContentLineParser}, regardless of the parser
+     * specified for this builder. Errors reading or parsing data are thrown from the stream operations as
+     * {@link UncheckedIOException} and {@link CalendarException} respectively.
+     * <p/>
+     * Where instrumentation is enabled the time spent parsing is reported once the stream is exhausted or
+     * closed.
+     *
+     * @param in a reader to read calendar data from
+     * @return a lazily parsed stream of calendar components
+     */
+    public Stream<CalendarComponent> stream(final Reader in) {
+        final ContentLineParser streamParser = getStreamParser();
+        return stream(new ComponentIterator(handler -> streamParser.start(in, handler), null));
+    }
+
+    private ContentLineParser getStreamParser() {
+        return parser instanceof ContentLineParser ? (ContentLineParser) parser : new ContentLineParser();
+    }
+
+    private Stream<CalendarComponent> stream(final ComponentIterator iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::end);
+    }
+
     /**
      * Returns the timezone registry used in the construction of calendars.
      *
@@ -193,4 +586,141 @@ public class CalendarBuilder implements Consumer<Calendar> {
     public final TimeZoneRegistry getRegistry() {
         return tzRegistry;
     }
+
+    /**
+     * Parses content lines on demand until the next top-level component is available. Where instrumentation is
+     * enabled the time spent parsing is accumulated and reported as a single parse once the iteration ends.
+     */
+    private final class ComponentIterator implements Iterator<CalendarComponent> {
+
+        private final Deque<CalendarComponent> components = new ArrayDeque<>();
+
+        private final ContentLineParser.Session session;
+
+        private final InstrumentationListener instrumentation;
+
+        /**
+         * Supplies the number of octets read, or null if unknown.
+         */
+        private final LongSupplier bytes;
+
+        private boolean finished;
+
+        private boolean ended;
+
+        private long nanos;
+
+        private ComponentIterator(final Function<ContentHandler, ContentLineParser.Session> start,
+                                  final LongSupplier bytes) {
+            this.session = start.apply(new DefaultContentHandler(calendar -> {}, tzRegistry,
+                    contentHandlerContext, components::add));
+            this.instrumentation = contentHandlerContext.getInstrumentation();
+            this.bytes = bytes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (components.isEmpty() && !finished) {
+                final long start = instrumentation != null ? System.nanoTime() : 0;
+                Exception failure = null;
+                try {
+                    while (components.isEmpty() && !finished) {
+                        finished = !session.step();
+                    }
+                } catch (IOException | ParserException | RuntimeException e) {
+                    failure = e;
+                }
+                if (instrumentation != null) {
+                    nanos += System.nanoTime() - start;
+                }
+                if (failure != null) {
+                    fail(failure);
+                }
+                if (finished) {
+                    end();
+                }
+            }
+            return !components.isEmpty();
+        }
+
+        /**
+         * Reports the specified failure to the instrumentation, if enabled, and rethrows it as an unchecked
+         * exception.
+         */
+        private void fail(final Exception e) {
+            if (instrumentation != null && !ended) {
+                instrumentation.failure(InstrumentationListener.Phase.PARSE, e);
+            }
+            end();
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            } else if (e instanceof ParserException) {
+                throw new CalendarException(e);
+            }
+            throw (RuntimeException) e;
+        }
+
+        /**
+         * Reports the parse to the instrumentation, if enabled and not already reported.
+         */
+        private void end() {
+            if (instrumentation != null && !ended) {
+                instrumentation.phase(InstrumentationListener.Phase.PARSE, nanos);
+                if (bytes != null) {
+                    instrumentation.bytes(InstrumentationListener.Phase.PARSE, bytes.getAsLong());
+                }
+            }
+            ended = true;
+        }
+
+        @Override
+        public CalendarComponent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return components.poll();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParseAction {
+        void parse() throws IOException, ParserException;
+    }
+
+    /**
+     * Counts the octets read from an input stream for instrumentation.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.TimeZone;
+import net.fortuna.ical4j.model.TimeZoneRegistry;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An immutable and thread-safe template for {@link CalendarBuilder} instances, which may be shared by all threads
+ * that parse calendar data (e.g. the request handling threads of a server).
+ * <p/>
+ * The factory indexes of the content handler context are compiled when the template is constructed, such that
+ * each parse requires only a new content handler and parser. Timezones are resolved against the shared timezone
+ * registry, which must support concurrent access. VTIMEZONE definitions found in the data are registered only
+ * for the parse in which they are found, so that the definitions of one calendar do not affect the parsing of
+ * another.
+ */
+public class CalendarBuilderTemplate {
+
+    private final Supplier<CalendarParser> parserSupplier;
+
+    private final ContentHandlerContext contentHandlerContext;
+
+    private final TimeZoneRegistry tzRegistry;
+
+    /**
+     * Default constructor.
+     */
+    public CalendarBuilderTemplate() {
+        this(CalendarParserFactory.getInstance(), new ContentHandlerContext(),
+                TimeZoneRegistryFactory.getInstance().createRegistry());
+    }
+
+    /**
+     * @param parserSupplier a supplier of the parser used for each parse. Stateless parsers (such as
+     *                       {@link ContentLineParser}) may be supplied as a single shared instance
+     * @param contentHandlerContext the content handler context shared by all parses
+     * @param tzRegistry the timezone registry shared by all parses
+     */
+    public CalendarBuilderTemplate(Supplier<CalendarParser> parserSupplier,
+                                   ContentHandlerContext contentHandlerContext, TimeZoneRegistry tzRegistry) {
+
+        this.parserSupplier = parserSupplier;
+        this.contentHandlerContext = contentHandlerContext;
+        this.tzRegistry = tzRegistry;
+
+        // compile factory indexes up front rather than on the first parse..
+        contentHandlerContext.getParameterFactories();
+        contentHandlerContext.getPropertyFactories();
+        contentHandlerContext.getComponentFactories();
+    }
+
+    /**
+     * Returns a new builder for use by a single thread. VTIMEZONE definitions parsed by the builder are
+     * registered in the registry of the builder, which otherwise resolves timezones from the shared registry.
+     *
+     * @return a new calendar builder
+     */
+    public CalendarBuilder newBuilder() {
+        return new CalendarBuilder(parserSupplier.get(), contentHandlerContext, new ParseRegistry(tzRegistry));
+    }
+
+    /**
+     * @param in an input stream to read calendar data from
+     * @return a calendar parsed from the specified input stream
+     * @throws IOException     where an error occurs reading data from the specified stream
+     * @throws ParserException where an error occurs parsing data from the stream
+     * @see CalendarBuilder#build(InputStream)
+     */
+    public Calendar build(final InputStream in) throws IOException, ParserException {
+        return newBuilder().build(in);
+    }
+
+    /**
+     * @param in a reader to read calendar data from
+     * @return a calendar parsed from the specified reader
+     * @throws IOException     where an error occurs reading data from the specified reader
+     * @throws ParserException where an error occurs parsing data from the reader
+     * @see CalendarBuilder#build(Reader)
+     */
+    public Calendar build(final Reader in) throws IOException, ParserException {
+        return newBuilder().build(in);
+    }
+
+    /**
+     * @param path the path of a file to read calendar data from
+     * @return a calendar parsed from the specified file
+     * @throws IOException     where an error occurs reading data from the specified file
+     * @throws ParserException where an error occurs parsing data from the file
+     * @see CalendarBuilder#build(Path)
+     */
+    public Calendar build(final Path path) throws IOException, ParserException {
+        return newBuilder().build(path);
+    }
+
+    /**
+     * @param in an input stream to read calendar data from
+     * @return a lazily parsed stream of calendar components
+     * @see CalendarBuilder#stream(InputStream)
+     */
+    public Stream<CalendarComponent> stream(final InputStream in) {
+        return newBuilder().stream(in);
+    }
+
+    /**
+     * @param in a reader to read calendar data from
+     * @return a lazily parsed stream of calendar components
+     * @see CalendarBuilder#stream(Reader)
+     */
+    public Stream<CalendarComponent> stream(final Reader in) {
+        return newBuilder().stream(in);
+    }
+
+    /**
+     * @return the content handler context shared by all parses
+     */
+    public final ContentHandlerContext getContentHandlerContext() {
+        return contentHandlerContext;
+    }
+
+    /**
+     * @return the timezone registry shared by all parses
+     */
+    public final TimeZoneRegistry getRegistry() {
+        return tzRegistry;
+    }
+
+    /**
+     * A registry of the timezones defined by a single calendar, which otherwise resolves timezones from a shared
+     * registry.
+     */
+    private static final class ParseRegistry implements TimeZoneRegistry {
+
+        private final TimeZoneRegistry shared;
+
+        /**
+         * Concurrent, as the builder may be used for a parallel build.
+         */
+        private final Map<String, TimeZone> timezones = new ConcurrentHashMap<>();
+
+        private ParseRegistry(final TimeZoneRegistry shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public void register(final TimeZone timezone) {
+            timezones.put(timezone.getID(), timezone);
+        }
+
+        @Override
+        public void register(final TimeZone timezone, final boolean update) {
+            // updates are only applied to definitions in the shared registry..
+            register(timezone);
+        }
+
+        @Override
+        public void clear() {
+            timezones.clear();
+        }
+
+        @Override
+        public TimeZone getTimeZone(final String id) {
+            final TimeZone timezone = timezones.get(id);
+            if (timezone != null) {
+                return timezone;
+            }
+            return shared.getTimeZone(id);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The content of a single VCALENDAR split at the boundaries of its top-level components, such that each
+ * component may be parsed independently.
+ * <p/>
+ * Splitting relies only on the fact that a folded line always begins with whitespace, so that BEGIN and END
+ * content lines may be identified from the start of each physical line without unfolding or tokenising the
+ * data.
+ */
+final class CalendarChunks {
+
+    private static final String CALENDAR_START = "BEGIN:VCALENDAR\r\n";
+
+    private static final String CALENDAR_END = "END:VCALENDAR\r\n";
+
+    private static final String BEGIN_PREFIX = Component.BEGIN + ':';
+
+    private static final String END_PREFIX = Component.END + ':';
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * A region of the source data comprising whole physical lines.
+     */
+    static final class Chunk {
+
+        private final int start;
+
+        private final int end;
+
+        private final int line;
+
+        private final int lines;
+
+        private final String name;
+
+        private Chunk(final int start, final int end, final int line, final int lines, final String name) {
+            this.start = start;
+            this.end = end;
+            this.line = line;
+            this.lines = lines;
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the component, or null if the chunk contains calendar properties
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return true if the chunk is a VTIMEZONE component
+         */
+        boolean isTimezone() {
+            return Component.VTIMEZONE.equalsIgnoreCase(name);
+        }
+    }
+
+    private final char[] data;
+
+    private final List<Chunk> components;
+
+    private final List<Chunk> properties;
+
+    private CalendarChunks(final char[] data, final List<Chunk> components, final List<Chunk> properties) {
+        this.data = data;
+        this.components = components;
+        this.properties = properties;
+    }
+
+    /**
+     * Splits the specified data at top-level component boundaries.
+     *
+     * @param data iCalendar data
+     * @param length the length of the data
+     * @return the split data, or null if the data is not a single well-formed VCALENDAR
+     */
+    static CalendarChunks split(final char[] data, final int length) {
+        final List<Chunk> components = new ArrayList<>();
+        final List<Chunk> properties = new ArrayList<>();
+
+        int depth = 0;
+        boolean ended = false;
+        String name = null;
+        int chunkStart = -1;
+        int chunkLine = 0;
+        int line = 1;
+        int pos = length > 0 && data[0] == BOM ? 1 : 0;
+
+        while (pos < length) {
+            final int lineStart = pos;
+            int lineEnd = pos;
+            while (lineEnd < length && data[lineEnd] != '\r' && data[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            pos = lineEnd;
+            if (pos < length && data[pos] == '\r') {
+                pos++;
+            }
+            if (pos < length && data[pos] == '\n') {
+                pos++;
+            }
+
+            if (lineEnd > lineStart && ended) {
+                // only a single calendar is supported..
+                return null;
+            } else if (startsWith(data, lineStart, lineEnd, BEGIN_PREFIX)) {
+                if (depth == 0) {
+                    if (!valueEquals(data, lineStart + BEGIN_PREFIX.length(), lineEnd, Calendar.VCALENDAR)) {
+                        return null;
+                    }
+                    chunkStart = pos;
+                    chunkLine = line + 1;
+                } else if (depth == 1) {
+                    addChunk(properties, chunkStart, lineStart, chunkLine, line - chunkLine, null);
+                    name = String.valueOf(data, lineStart + BEGIN_PREFIX.length(),
+                            lineEnd - lineStart - BEGIN_PREFIX.length()).trim();
+                    chunkStart = lineStart;
+                    chunkLine = line;
+                }
+                depth++;
+            } else if (startsWith(data, lineStart, lineEnd, END_PREFIX)) {
+                depth--;
+                if (depth == 1) {
+                    addChunk(components, chunkStart, pos, chunkLine, line - chunkLine + 1, name);
+                    chunkStart = pos;
+                    chunkLine = line + 1;
+                } else if (depth == 0) {
+                    addChunk(properties, chunkStart, lineStart, chunkLine, line - chunkLine, null);
+                    ended = true;
+                } else if (depth < 0) {
+                    return null;
+                }
+            } else if (depth == 0 && lineEnd > lineStart) {
+                return null;
+            }
+            line++;
+        }
+
+        if (!ended) {
+            return null;
+        }
+        return new CalendarChunks(data, components, properties);
+    }
+
+    /**
+     * @return the top-level components of the calendar, in order of appearance
+     */
+    List<Chunk> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * @return the regions of the calendar containing calendar properties
+     */
+    List<Chunk> getProperties() {
+        return Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Returns a reader over the specified chunks, enclosed in a VCALENDAR component.
+     *
+     * @param chunks a list of chunks
+     * @return a reader over the chunk content
+     */
+    Reader reader(final List<Chunk> chunks) {
+        return new ChunkReader(chunks);
+    }
+
+    /**
+     * Returns the line number in the source data corresponding to a line read from {@link #reader(List)}.
+     *
+     * @param chunks the chunks used to create the reader
+     * @param lineNo a line number reported by the parser of the reader
+     * @return the corresponding source line number
+     */
+    static int getSourceLine(final List<Chunk> chunks, final int lineNo) {
+        // skip the enclosing BEGIN:VCALENDAR..
+        int remaining = lineNo - 1;
+        int line = 1;
+        for (Chunk chunk : chunks) {
+            if (remaining <= chunk.lines) {
+                return chunk.line + remaining - 1;
+            }
+            remaining -= chunk.lines;
+            line = chunk.line + chunk.lines;
+        }
+        return line;
+    }
+
+    private static void addChunk(final List<Chunk> chunks, final int start, final int end, final int line,
+                                 final int lines, final String name) {
+        if (end > start) {
+            chunks.add(new Chunk(start, end, line, lines, name));
+        }
+    }
+
+    private static boolean startsWith(final char[] data, final int start, final int end, final String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        return String.valueOf(data, start, prefix.length()).equalsIgnoreCase(prefix);
+    }
+
+    private static boolean valueEquals(final char[] data, final int start, final int end, final String value) {
+        return String.valueOf(data, start, end - start).trim().equalsIgnoreCase(value);
+    }
+
+    /**
+     * Reads the enclosing VCALENDAR lines and chunk content in sequence, without copying the source data.
+     */
+    private final class ChunkReader extends Reader {
+
+        private final List<Chunk> chunks;
+
+        /**
+         * The current segment, where -1 is the calendar start, and chunks.size() is the calendar end.
+         */
+        private int segment = -1;
+
+        private int offset;
+
+        private ChunkReader(final List<Chunk> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            while (segment <= chunks.size()) {
+                final int available;
+                if (segment < 0) {
+                    available = CALENDAR_START.length() - offset;
+                } else if (segment < chunks.size()) {
+                    final Chunk chunk = chunks.get(segment);
+                    available = chunk.end - chunk.start - offset;
+                } else {
+                    available = CALENDAR_END.length() - offset;
+                }
+
+                if (available > 0) {
+                    final int count = Math.min(available, len);
+                    if (segment < 0) {
+                        CALENDAR_START.getChars(offset, offset + count, cbuf, off);
+                    } else if (segment < chunks.size()) {
+                        System.arraycopy(data, chunks.get(segment).start + offset, cbuf, off, count);
+                    } else {
+                        CALENDAR_END.getChars(offset, offset + count, cbuf, off);
+                    }
+                    offset += count;
+                    return count;
+                }
+                segment++;
+                offset = 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            segment = chunks.size() + 1;
+        }
+    }
+}
@@ -32,12 +32,24 @@
 package net.fortuna.ical4j.data;
 
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.ComponentContainer;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.util.Strings;
 import net.fortuna.ical4j.validate.ValidationException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * <pre>
@@ -49,6 +61,20 @@ import java.io.Writer;
  */
 public class CalendarOutputter extends AbstractOutputter {
 
+    /**
+     * The number of components serialized by each task when output in parallel.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The maximum number of batches serialized ahead of the batch being written.
+     */
+    private static final int MAX_PENDING_BATCHES = 64;
+
+    private ExecutorService executor;
+
+    private InstrumentationListener instrumentation;
+
     /**
      * Default constructor.
      */
@@ -72,7 +98,42 @@ public class CalendarOutputter extends AbstractOutputter {
     }
 
     /**
-     * Outputs an iCalender string to the specified output stream.
+     * @return the executor used to serialize components in parallel, or null if components are serialized on the
+     * calling thread
+     */
+    public final ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Specifies an executor used to serialize the components of a calendar in parallel when output to a stream or
+     * byte sink. Components are serialized in batches by tasks submitted to the executor, and written to the target
+     * in their original order.
+     * @param executor an executor service, or null to serialize components on the calling thread
+     */
+    public final void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return a listener to receive measurements of serialization, or null if instrumentation is disabled
+     */
+    public final InstrumentationListener getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Specifies a listener to receive the time taken to serialize each calendar, any failures, and the number of
+     * octets written when output to a stream or byte sink.
+     * @param instrumentation a listener to receive measurements, or null to disable instrumentation
+     */
+    public final void setInstrumentation(final InstrumentationListener instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Outputs an iCalender string to the specified output stream. Content is encoded directly to UTF-8 octets via a
+     * {@link ByteSink}.
      * @param calendar calendar to write to ouput stream
      * @param out an output stream
      * @throws IOException thrown when unable to write to output stream
@@ -80,11 +141,35 @@ public class CalendarOutputter extends AbstractOutputter {
      */
     public final void output(final Calendar calendar, final OutputStream out)
             throws IOException, ValidationException {
-        output(calendar, new OutputStreamWriter(out, DEFAULT_CHARSET));
+        if (isValidating()) {
+            calendar.validate();
+        }
+
+        try (ByteSink sink = new ByteSink(out, foldLength)) {
+            serialize(() -> writeCalendar(calendar, sink), sink);
+        }
+    }
+
+    /**
+     * Outputs an iCalendar string to the specified byte sink. The sink is flushed but not closed, such that it may
+     * be reused for subsequent output.
+     * @param calendar calendar to write to the sink
+     * @param sink a byte sink
+     * @throws IOException thrown when unable to write to the sink
+     * @throws ValidationException where calendar validation fails
+     */
+    public final void output(final Calendar calendar, final ByteSink sink)
+            throws IOException, ValidationException {
+        if (isValidating()) {
+            calendar.validate();
+        }
+
+        serialize(() -> writeCalendar(calendar, sink), sink);
     }
 
     /**
-     * Outputs an iCalender string to the specified writer.
+     * Outputs an iCalender string to the specified writer. Each content line is written as it is generated, such
+     * that the string representation of the calendar as a whole is not held in memory.
      * @param calendar calendar to write to writer
      * @param out a writer
      * @throws IOException thrown when unable to write to writer
@@ -97,7 +182,148 @@ public class CalendarOutputter extends AbstractOutputter {
         }
 
         try (FoldingWriter writer = new FoldingWriter(out, foldLength)) {
-            writer.write(calendar.toString());
+            serialize(() -> writeCalendar(calendar, writer), null);
+        }
+    }
+
+    /**
+     * Performs the specified serialization, flushing the sink (if any) and reporting the time taken, octets written
+     * and any failure to the instrumentation, if enabled.
+     */
+    private void serialize(final SerializeAction action, final ByteSink sink) throws IOException {
+        if (instrumentation == null) {
+            action.write();
+            if (sink != null) {
+                sink.flush();
+            }
+            return;
+        }
+        final long start = System.nanoTime();
+        final long written = sink != null ? sink.getBytesWritten() : 0;
+        try {
+            action.write();
+            if (sink != null) {
+                sink.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            instrumentation.failure(InstrumentationListener.Phase.SERIALIZE, e);
+            throw e;
+        } finally {
+            instrumentation.phase(InstrumentationListener.Phase.SERIALIZE, System.nanoTime() - start);
+            if (sink != null) {
+                instrumentation.bytes(InstrumentationListener.Phase.SERIALIZE, sink.getBytesWritten() - written);
+            }
+        }
+    }
+
+    private void writeCalendar(final Calendar calendar, final Writer writer) throws IOException {
+        // write each content line as it is generated rather than the calendar as a whole..
+        writeBoundary(Component.BEGIN, Calendar.VCALENDAR, writer);
+        writeProperties(calendar.getProperties(), writer);
+        for (Component component : calendar.getComponents()) {
+            writeComponent(component, writer);
+        }
+        writeBoundary(Component.END, Calendar.VCALENDAR, writer);
+    }
+
+    /**
+     * Writes a component in the form returned by {@link Component#toString()}.
+     */
+    private void writeComponent(final Component component, final Writer writer) throws IOException {
+        if (!(component instanceof ComponentContainer)) {
+            // any sub-components are not accessible, so write the component as a whole..
+            writer.write(component.toString());
+            return;
+        }
+        writeBoundary(Component.BEGIN, component.getName(), writer);
+        writeProperties(component.getProperties(), writer);
+        for (Component subComponent : ((ComponentContainer<?>) component).getComponents()) {
+            writeComponent(subComponent, writer);
+        }
+        writeBoundary(Component.END, component.getName(), writer);
+    }
+
+    private void writeProperties(final PropertyList<Property> properties, final Writer writer) throws IOException {
+        for (Property property : properties) {
+            writer.write(property.toString());
         }
     }
+
+    private void writeBoundary(final String boundary, final String name, final Writer writer) throws IOException {
+        writer.write(boundary);
+        writer.write(':');
+        writer.write(name);
+        writer.write(Strings.LINE_SEPARATOR);
+    }
+
+    private void writeCalendar(final Calendar calendar, final ByteSink sink) throws IOException {
+        sink.append(Component.BEGIN).append(':').append(Calendar.VCALENDAR).endLine();
+        for (Property property : calendar.getProperties()) {
+            property.writeTo(sink);
+        }
+        if (executor != null && calendar.getComponents().size() > BATCH_SIZE) {
+            writeComponents(calendar.getComponents(), sink);
+        } else {
+            for (Component component : calendar.getComponents()) {
+                component.writeTo(sink);
+            }
+        }
+        sink.append(Component.END).append(':').append(Calendar.VCALENDAR).endLine();
+    }
+
+    /**
+     * Serializes batches of components concurrently and appends the encoded batches to the sink in order. As
+     * each component starts on a new line, the components of a batch may be folded independently of those
+     * preceding it.
+     */
+    private void writeComponents(final List<? extends Component> components, final ByteSink sink)
+            throws IOException {
+        final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try {
+            for (int i = 0; i < components.size(); i += BATCH_SIZE) {
+                final List<? extends Component> batch = components.subList(i,
+                        Math.min(i + BATCH_SIZE, components.size()));
+                pending.add(executor.submit(() -> encode(batch)));
+                if (pending.size() >= MAX_PENDING_BATCHES) {
+                    sink.appendLines(await(pending.remove()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                sink.appendLines(await(pending.remove()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private byte[] encode(final List<? extends Component> components) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ByteSink sink = new ByteSink(out, foldLength)) {
+            for (Component component : components) {
+                component.writeTo(sink);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] await(final Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted serializing components");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Error serializing components", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface SerializeAction {
+        void write() throws IOException;
+    }
 }
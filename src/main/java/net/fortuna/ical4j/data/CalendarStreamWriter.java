@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.validate.ValidationException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes an iCalendar stream incrementally, one component at a time, such that the calendar as a whole need not be
+ * held in memory. A calendar is started by {@link #open(PropertyList)} and terminated by {@link #close()}:
+ *
+ * <pre>
+ * try (CalendarStreamWriter writer = new CalendarStreamWriter(out)) {
+ *     writer.open(properties);
+ *     for (CalendarComponent component : components) {
+ *         writer.write(component);
+ *     }
+ * }
+ * </pre>
+ *
+ * Components may also be appended to an existing iCalendar file via {@link #append(Path)}, in which case they are
+ * written over the trailing <code>END:VCALENDAR</code> without rewriting the existing content.
+ */
+public class CalendarStreamWriter extends AbstractOutputter implements Flushable, Closeable {
+
+    /**
+     * The maximum number of trailing octets examined when locating the end of an existing calendar.
+     */
+    private static final int MAX_TRAILER_LENGTH = 1024;
+
+    private static final byte[] END_CALENDAR = (Component.END + ':' + Calendar.VCALENDAR)
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteSink sink;
+
+    /**
+     * The channel of a file opened for appending, otherwise null.
+     */
+    private FileChannel channel;
+
+    private boolean open;
+
+    private boolean written;
+
+    /**
+     * @param out an output stream to write the calendar to
+     */
+    public CalendarStreamWriter(final OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * @param out        an output stream to write the calendar to
+     * @param validating indicates whether to validate properties and components as they are written
+     */
+    public CalendarStreamWriter(final OutputStream out, final boolean validating) {
+        super(validating);
+        this.sink = new ByteSink(out, foldLength);
+    }
+
+    /**
+     * @param out        an output stream to write the calendar to
+     * @param validating indicates whether to validate properties and components as they are written
+     * @param foldLength maximum number of characters before a line is folded
+     */
+    public CalendarStreamWriter(final OutputStream out, final boolean validating, final int foldLength) {
+        super(validating, foldLength);
+        this.sink = new ByteSink(out, foldLength);
+    }
+
+    /**
+     * Opens an existing iCalendar file for appending components. Components are written over the trailing
+     * <code>END:VCALENDAR</code>, which is restored when the writer is closed. Where no components are written the
+     * file is left unchanged.
+     * @param file an existing iCalendar file
+     * @return a writer for appending components to the calendar
+     * @throws IOException where the file cannot be opened, or does not end with <code>END:VCALENDAR</code>
+     */
+    public static CalendarStreamWriter append(final Path file) throws IOException {
+        return append(file, true);
+    }
+
+    /**
+     * Opens an existing iCalendar file for appending components. Components are written over the trailing
+     * <code>END:VCALENDAR</code>, which is restored when the writer is closed. Where no components are written the
+     * file is left unchanged.
+     * @param file       an existing iCalendar file
+     * @param validating indicates whether to validate components as they are written
+     * @return a writer for appending components to the calendar
+     * @throws IOException where the file cannot be opened, or does not end with <code>END:VCALENDAR</code>
+     */
+    public static CalendarStreamWriter append(final Path file, final boolean validating) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long position = findEndCalendar(channel);
+            if (position < 0) {
+                throw new IOException("No trailing " + Component.END + ':' + Calendar.VCALENDAR + " in " + file);
+            }
+            channel.position(position);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        final CalendarStreamWriter writer = new CalendarStreamWriter(Channels.newOutputStream(channel), validating);
+        writer.channel = channel;
+        writer.open = true;
+        return writer;
+    }
+
+    /**
+     * Starts a calendar with the specified calendar properties.
+     * @param properties calendar properties, such as <code>PRODID</code> and <code>VERSION</code>
+     * @return this writer
+     * @throws IOException where an error occurs writing to the underlying stream
+     * @throws ValidationException where a property is invalid
+     */
+    public final CalendarStreamWriter open(final PropertyList<Property> properties)
+            throws IOException, ValidationException {
+        if (open) {
+            throw new IllegalStateException("Calendar is already open");
+        }
+        if (isValidating()) {
+            for (Property property : properties) {
+                property.validate();
+            }
+        }
+        sink.append(Component.BEGIN).append(':').append(Calendar.VCALENDAR).endLine();
+        for (Property property : properties) {
+            property.writeTo(sink);
+        }
+        open = true;
+        return this;
+    }
+
+    /**
+     * Writes a component to the calendar.
+     * @param component a calendar component
+     * @return this writer
+     * @throws IOException where an error occurs writing to the underlying stream
+     * @throws ValidationException where the component is invalid
+     */
+    public final CalendarStreamWriter write(final CalendarComponent component)
+            throws IOException, ValidationException {
+        if (!open) {
+            throw new IllegalStateException("Calendar is not open");
+        }
+        if (isValidating()) {
+            component.validate();
+        }
+        component.writeTo(sink);
+        written = true;
+        return this;
+    }
+
+    /**
+     * Writes any buffered content to the underlying stream.
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    @Override
+    public final void flush() throws IOException {
+        sink.flush();
+    }
+
+    /**
+     * Terminates the calendar, if open, and closes the underlying stream.
+     * @throws IOException where an error occurs writing to the underlying stream
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (open && (channel == null || written)) {
+                sink.append(Component.END).append(':').append(Calendar.VCALENDAR).endLine();
+                if (channel != null) {
+                    // discard any remainder of the original trailer..
+                    sink.flush();
+                    channel.truncate(channel.position());
+                }
+            }
+            open = false;
+        } finally {
+            sink.close();
+        }
+    }
+
+    /**
+     * @return the position of a trailing <code>END:VCALENDAR</code> at the start of a line, or -1 if the content does
+     * not end with <code>END:VCALENDAR</code>
+     */
+    private static long findEndCalendar(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int length = (int) Math.min(size, MAX_TRAILER_LENGTH);
+        final ByteBuffer trailer = ByteBuffer.allocate(length);
+        while (trailer.hasRemaining()) {
+            if (channel.read(trailer, size - length + trailer.position()) < 0) {
+                break;
+            }
+        }
+
+        // ignore trailing whitespace..
+        int end = trailer.position();
+        while (end > 0 && Character.isWhitespace(trailer.get(end - 1))) {
+            end--;
+        }
+        final int start = end - END_CALENDAR.length;
+        if (start < 0) {
+            return -1;
+        }
+        for (int i = 0; i < END_CALENDAR.length; i++) {
+            if (Character.toUpperCase(trailer.get(start + i)) != END_CALENDAR[i]) {
+                return -1;
+            }
+        }
+        if (start > 0 && trailer.get(start - 1) != '\n') {
+            return -1;
+        }
+        return start + size - length;
+    }
+}
@@ -98,4 +98,21 @@ public interface ContentHandler {
      * @throws URISyntaxException where the parameter value is not a valid URI for applicable parameters
      */
     void parameter(String name, String value) throws URISyntaxException;
+
+    /**
+     * Returns the projection of content required by this handler. Parsers may use the projection to skip
+     * content that is not required, in which case the handler is not notified of that content.
+     * @return a content projection
+     */
+    default ContentProjection getProjection() {
+        return ContentProjection.ALL;
+    }
+
+    /**
+     * Returns a listener for measurements taken by the parser, such as the number of lines unfolded.
+     * @return an instrumentation listener, or null if instrumentation is disabled
+     */
+    default InstrumentationListener getInstrumentation() {
+        return null;
+    }
 }
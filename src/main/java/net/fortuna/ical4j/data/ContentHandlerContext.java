@@ -1,6 +1,7 @@
 package net.fortuna.ical4j.data;
 
 import net.fortuna.ical4j.model.ComponentFactory;
+import net.fortuna.ical4j.model.ContentFactoryIndex;
 import net.fortuna.ical4j.model.ParameterFactory;
 import net.fortuna.ical4j.model.PropertyFactory;
 
@@ -10,23 +11,56 @@ import java.util.function.Supplier;
 
 /**
  * Customize behaviour of {@link ContentHandler} implementations.
+ * <p/>
+ * The factory suppliers of a context are compiled once, on first use, into indexes of factories keyed by name
+ * that are shared by all handlers (and threads) using the context. Contexts using the default suppliers share
+ * a single set of indexes.
  */
 public class ContentHandlerContext {
 
-    private Supplier<List<ParameterFactory<?>>> parameterFactorySupplier = new DefaultParameterFactorySupplier();
+    private static final Supplier<List<ParameterFactory<?>>> DEFAULT_PARAMETER_FACTORY_SUPPLIER =
+            new DefaultParameterFactorySupplier();
 
-    private Supplier<List<PropertyFactory<?>>> propertyFactorySupplier = new DefaultPropertyFactorySupplier();
+    private static final Supplier<List<PropertyFactory<?>>> DEFAULT_PROPERTY_FACTORY_SUPPLIER =
+            new DefaultPropertyFactorySupplier();
 
-    private Supplier<List<ComponentFactory<?>>> componentFactorySupplier = new DefaultComponentFactorySupplier();
+    private static final Supplier<List<ComponentFactory<?>>> DEFAULT_COMPONENT_FACTORY_SUPPLIER =
+            new DefaultComponentFactorySupplier();
+
+    private Supplier<List<ParameterFactory<?>>> parameterFactorySupplier = DEFAULT_PARAMETER_FACTORY_SUPPLIER;
+
+    private Supplier<List<PropertyFactory<?>>> propertyFactorySupplier = DEFAULT_PROPERTY_FACTORY_SUPPLIER;
+
+    private Supplier<List<ComponentFactory<?>>> componentFactorySupplier = DEFAULT_COMPONENT_FACTORY_SUPPLIER;
 
     private List<String> ignoredPropertyNames = Collections.emptyList();
 
+    private boolean deferPropertyValues;
+
+    private boolean preserveSource;
+
+    private ContentProjection projection = ContentProjection.ALL;
+
+    private InstrumentationListener instrumentation;
+
+    private volatile ContentFactoryIndex<ParameterFactory<?>> parameterFactories;
+
+    private volatile ContentFactoryIndex<PropertyFactory<?>> propertyFactories;
+
+    private volatile ContentFactoryIndex<ComponentFactory<?>> componentFactories;
+
     public ContentHandlerContext withParameterFactorySupplier(Supplier<List<ParameterFactory<?>>> parameterFactorySupplier) {
         ContentHandlerContext context = new ContentHandlerContext();
         context.parameterFactorySupplier = parameterFactorySupplier;
         context.propertyFactorySupplier = this.propertyFactorySupplier;
         context.componentFactorySupplier = this.componentFactorySupplier;
         context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
         return context;
     }
 
@@ -36,6 +70,12 @@ public class ContentHandlerContext {
         context.propertyFactorySupplier = propertyFactorySupplier;
         context.componentFactorySupplier = this.componentFactorySupplier;
         context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.componentFactories = this.componentFactories;
         return context;
     }
 
@@ -45,6 +85,12 @@ public class ContentHandlerContext {
         context.propertyFactorySupplier = this.propertyFactorySupplier;
         context.componentFactorySupplier = componentFactorySupplier;
         context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
         return context;
     }
 
@@ -54,6 +100,96 @@ public class ContentHandlerContext {
         context.propertyFactorySupplier = this.propertyFactorySupplier;
         context.componentFactorySupplier = this.componentFactorySupplier;
         context.ignoredPropertyNames = ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
+        return context;
+    }
+
+    /**
+     * @param deferPropertyValues true to defer parsing of property values until first accessed, where supported
+     * @return a new context with the specified option
+     * @see net.fortuna.ical4j.model.Property#deferValue(String)
+     */
+    public ContentHandlerContext withDeferredPropertyValues(boolean deferPropertyValues) {
+        ContentHandlerContext context = new ContentHandlerContext();
+        context.parameterFactorySupplier = this.parameterFactorySupplier;
+        context.propertyFactorySupplier = this.propertyFactorySupplier;
+        context.componentFactorySupplier = this.componentFactorySupplier;
+        context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
+        return context;
+    }
+
+    /**
+     * @param preserveSource true to retain the unfolded content line of each parsed property, such that properties
+     *                       unmodified since parsing are serialized as per the original content
+     * @return a new context with the specified option
+     * @see net.fortuna.ical4j.model.Property#setSource(String)
+     */
+    public ContentHandlerContext withPreservedSource(boolean preserveSource) {
+        ContentHandlerContext context = new ContentHandlerContext();
+        context.parameterFactorySupplier = this.parameterFactorySupplier;
+        context.propertyFactorySupplier = this.propertyFactorySupplier;
+        context.componentFactorySupplier = this.componentFactorySupplier;
+        context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
+        return context;
+    }
+
+    /**
+     * @param projection the subset of content to parse
+     * @return a new context with the specified projection
+     */
+    public ContentHandlerContext withProjection(ContentProjection projection) {
+        ContentHandlerContext context = new ContentHandlerContext();
+        context.parameterFactorySupplier = this.parameterFactorySupplier;
+        context.propertyFactorySupplier = this.propertyFactorySupplier;
+        context.componentFactorySupplier = this.componentFactorySupplier;
+        context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = projection;
+        context.instrumentation = this.instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
+        return context;
+    }
+
+    /**
+     * @param instrumentation a listener to receive measurements of parsing, or null to disable instrumentation
+     * @return a new context with the specified instrumentation
+     */
+    public ContentHandlerContext withInstrumentation(InstrumentationListener instrumentation) {
+        ContentHandlerContext context = new ContentHandlerContext();
+        context.parameterFactorySupplier = this.parameterFactorySupplier;
+        context.propertyFactorySupplier = this.propertyFactorySupplier;
+        context.componentFactorySupplier = this.componentFactorySupplier;
+        context.ignoredPropertyNames = this.ignoredPropertyNames;
+        context.deferPropertyValues = this.deferPropertyValues;
+        context.preserveSource = this.preserveSource;
+        context.projection = this.projection;
+        context.instrumentation = instrumentation;
+        context.parameterFactories = this.parameterFactories;
+        context.propertyFactories = this.propertyFactories;
+        context.componentFactories = this.componentFactories;
         return context;
     }
 
@@ -72,4 +208,87 @@ public class ContentHandlerContext {
     public List<String> getIgnoredPropertyNames() {
         return ignoredPropertyNames;
     }
+
+    public boolean isDeferPropertyValues() {
+        return deferPropertyValues;
+    }
+
+    public boolean isPreserveSource() {
+        return preserveSource;
+    }
+
+    public ContentProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * @return a listener to receive measurements of parsing, or null if instrumentation is disabled
+     */
+    public InstrumentationListener getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * @return an index of the factories provided by the parameter factory supplier
+     */
+    public ContentFactoryIndex<ParameterFactory<?>> getParameterFactories() {
+        // a race may compile more than once, but the result is equivalent..
+        ContentFactoryIndex<ParameterFactory<?>> factories = parameterFactories;
+        if (factories == null) {
+            if (parameterFactorySupplier == DEFAULT_PARAMETER_FACTORY_SUPPLIER) {
+                factories = DefaultFactories.PARAMETERS;
+            } else {
+                factories = ContentFactoryIndex.ofParameters(parameterFactorySupplier.get());
+            }
+            parameterFactories = factories;
+        }
+        return factories;
+    }
+
+    /**
+     * @return an index of the factories provided by the property factory supplier
+     */
+    public ContentFactoryIndex<PropertyFactory<?>> getPropertyFactories() {
+        ContentFactoryIndex<PropertyFactory<?>> factories = propertyFactories;
+        if (factories == null) {
+            if (propertyFactorySupplier == DEFAULT_PROPERTY_FACTORY_SUPPLIER) {
+                factories = DefaultFactories.PROPERTIES;
+            } else {
+                factories = ContentFactoryIndex.ofProperties(propertyFactorySupplier.get());
+            }
+            propertyFactories = factories;
+        }
+        return factories;
+    }
+
+    /**
+     * @return an index of the factories provided by the component factory supplier
+     */
+    public ContentFactoryIndex<ComponentFactory<?>> getComponentFactories() {
+        ContentFactoryIndex<ComponentFactory<?>> factories = componentFactories;
+        if (factories == null) {
+            if (componentFactorySupplier == DEFAULT_COMPONENT_FACTORY_SUPPLIER) {
+                factories = DefaultFactories.COMPONENTS;
+            } else {
+                factories = ContentFactoryIndex.ofComponents(componentFactorySupplier.get());
+            }
+            componentFactories = factories;
+        }
+        return factories;
+    }
+
+    /**
+     * Indexes of the default factories, initialised on first use.
+     */
+    private static final class DefaultFactories {
+
+        static final ContentFactoryIndex<ParameterFactory<?>> PARAMETERS =
+                ContentFactoryIndex.ofParameters(DEFAULT_PARAMETER_FACTORY_SUPPLIER.get());
+
+        static final ContentFactoryIndex<PropertyFactory<?>> PROPERTIES =
+                ContentFactoryIndex.ofProperties(DEFAULT_PROPERTY_FACTORY_SUPPLIER.get());
+
+        static final ContentFactoryIndex<ComponentFactory<?>> COMPONENTS =
+                ContentFactoryIndex.ofComponents(DEFAULT_COMPONENT_FACTORY_SUPPLIER.get());
+    }
 }
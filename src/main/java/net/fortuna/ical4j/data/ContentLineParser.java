@@ -0,0 +1,1406 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.util.CompatibilityHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * A calendar parser that reads whole unfolded content lines into a character buffer and splits each line into
+ * name, parameters and value using index arithmetic, rather than tokenising the stream one token at a time as
+ * {@link CalendarParserImpl} does.
+ * <p/>
+ * This parser performs unfolding itself (including relaxed unfolding where enabled), so it may be supplied with
+ * a plain reader. When supplied with an {@link UnfoldingReader} the lines unfolded by that reader are included
+ * in the line numbers reported via {@link ParserException}.
+ * <p/>
+ * Content excluded by the {@link ContentHandler#getProjection() projection} of the content handler is skipped
+ * once the name of each content line is read, and parsing stops once the limit of the projection is reached.
+ * <p/>
+ * To use this parser by default specify the following configuration property:
+ * <pre>
+ * net.fortuna.ical4j.parser=net.fortuna.ical4j.data.ContentLineParserFactory
+ * </pre>
+ */
+public class ContentLineParser implements CalendarParser {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int INITIAL_LINE_SIZE = 256;
+
+    /**
+     * The maximum size of a single mapped region of a file. Larger files are mapped one window at a time.
+     */
+    private static final int MAPPED_WINDOW_SIZE = 1 << 30;
+
+    private static final int NAME_POOL_SIZE = 256;
+
+    private static final int INITIAL_PARAMETER_COUNT = 8;
+
+    private static final String UNEXPECTED_TOKEN_MESSAGE = "Expected [{0}], read [{1}]";
+
+    private static final String EOL = "EOL";
+
+    private static final char BOM = '\uFEFF';
+
+    private static final int TERMINATOR_NONE = 0;
+
+    private static final int TERMINATOR_CR = 1;
+
+    private static final int TERMINATOR_LF = 2;
+
+    private static final int TERMINATOR_CRLF = 3;
+
+    private final Logger log = LoggerFactory.getLogger(ContentLineParser.class);
+
+    private final int bufferSize;
+
+    private final int mappedWindowSize;
+
+    /**
+     * Default constructor.
+     */
+    public ContentLineParser() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize the size of the buffer used to read from the underlying reader or input stream
+     */
+    public ContentLineParser(int bufferSize) {
+        this(bufferSize, MAPPED_WINDOW_SIZE);
+    }
+
+    /**
+     * @param bufferSize the size of the buffer used to read from the underlying reader or input stream
+     * @param mappedWindowSize the maximum number of bytes of a file mapped into memory at once
+     */
+    ContentLineParser(int bufferSize, int mappedWindowSize) {
+        this.bufferSize = bufferSize;
+        this.mappedWindowSize = mappedWindowSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void parse(final InputStream in, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        final Session session = start(in, handler);
+        while (session.step()) {
+            // parse all content lines..
+        }
+    }
+
+    /**
+     * Parses UTF-8 encoded iCalendar data from the remaining bytes of the specified buffer. The position of the
+     * buffer is not modified.
+     *
+     * @param in a buffer of iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @throws IOException where an error occurs reading data
+     * @throws ParserException where an error occurs parsing data
+     */
+    public final void parse(final ByteBuffer in, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        final Session session = start(in, handler);
+        while (session.step()) {
+            // parse all content lines..
+        }
+    }
+
+    /**
+     * Parses UTF-8 encoded iCalendar data from the specified file channel, from its current position to the end
+     * of the file. The file is mapped into memory and read in place, one window at a time, so that files larger
+     * than 2GB may be parsed. The position of the channel is not modified.
+     *
+     * @param in a file channel from which to read iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @throws IOException where an error occurs reading data
+     * @throws ParserException where an error occurs parsing data
+     */
+    public final void parse(final FileChannel in, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        final Session session = start(in, in.position(), handler);
+        while (session.step()) {
+            // parse all content lines..
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void parse(final Reader in, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        final Session session = start(in, handler);
+        while (session.step()) {
+            // parse all content lines..
+        }
+    }
+
+    /**
+     * Starts an incremental parse of the specified reader. No data is read until the first call to
+     * {@link Session#step()}.
+     *
+     * @param in a reader from which to read iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @return a parse session
+     */
+    Session start(final Reader in, final ContentHandler handler) {
+        return new Session(new CharLexer(in, bufferSize,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING),
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)), handler);
+    }
+
+    /**
+     * Starts an incremental parse of UTF-8 encoded data from the specified input stream.
+     *
+     * @param in an input stream from which to read iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @return a parse session
+     * @see #start(Reader, ContentHandler)
+     */
+    Session start(final InputStream in, final ContentHandler handler) {
+        return new Session(new ByteLexer(in, bufferSize,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING),
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)), handler);
+    }
+
+    /**
+     * Starts an incremental parse of UTF-8 encoded data from the remaining bytes of the specified buffer.
+     *
+     * @param in a buffer of iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @return a parse session
+     * @see #start(Reader, ContentHandler)
+     */
+    Session start(final ByteBuffer in, final ContentHandler handler) {
+        return new Session(new ByteLexer(in,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING),
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)), handler);
+    }
+
+    /**
+     * Starts an incremental parse of UTF-8 encoded data mapped from the specified file channel.
+     *
+     * @param in a file channel from which to read iCalendar data
+     * @param position the position in the file from which to read
+     * @param handler the content handler to notify during parsing
+     * @return a parse session
+     * @see #start(Reader, ContentHandler)
+     */
+    Session start(final FileChannel in, final long position, final ContentHandler handler) {
+        return new Session(new ByteLexer(in, position, mappedWindowSize,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING),
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)), handler);
+    }
+
+    /**
+     * Starts a non-blocking parse of UTF-8 encoded data that is pushed to the parser as it becomes available.
+     *
+     * @param handler the content handler to notify during parsing
+     * @return a push parser
+     */
+    public PushParser push(final ContentHandler handler) {
+        return new PushParser(new ByteLexer(bufferSize,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING),
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)), handler);
+    }
+
+    /**
+     * A non-blocking parse of UTF-8 encoded iCalendar data, which is supplied in arbitrary chunks (e.g. as
+     * received from a network channel). The content handler is notified of each content line once it is complete,
+     * including where a content line, a fold or a multi-byte character is split across chunks. A content line is
+     * only complete once the first byte of the following line is received (as it may be folded), or at the end of
+     * input.
+     * <p/>
+     * Instances are not thread-safe, but may be used by different threads provided calls are not concurrent.
+     */
+    public final class PushParser {
+
+        private final ByteLexer lexer;
+
+        private final Session session;
+
+        private boolean finished;
+
+        private PushParser(final ByteLexer lexer, final ContentHandler handler) {
+            this.lexer = lexer;
+            this.session = new Session(lexer, handler);
+        }
+
+        /**
+         * Parses the remaining bytes of the specified buffer, along with any incomplete content line from
+         * previous buffers. The bytes are consumed from the buffer, which may be reused once this method returns.
+         *
+         * @param in a buffer of iCalendar data
+         * @throws IOException where an error occurs notifying the handler
+         * @throws ParserException where an error occurs parsing data
+         */
+        public void feed(final ByteBuffer in) throws IOException, ParserException {
+            if (finished) {
+                // the parse is complete, so ignore further data..
+                in.position(in.limit());
+                return;
+            }
+            lexer.push(in);
+            parse();
+        }
+
+        /**
+         * Completes the parse of the data fed to this parser.
+         *
+         * @throws IOException where an error occurs notifying the handler
+         * @throws ParserException where an error occurs parsing data, including where the data ends before the
+         * end of a calendar
+         */
+        public void endOfInput() throws IOException, ParserException {
+            if (!finished) {
+                lexer.endOfInput();
+                parse();
+            }
+        }
+
+        /**
+         * @return true if the parse is complete, either at the end of input or where no further content is required
+         * by the handler's projection
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        private void parse() throws IOException, ParserException {
+            try {
+                do {
+                    lexer.mark();
+                } while (session.step());
+                finished = true;
+            } catch (IncompleteInputException e) {
+                // await more data..
+                lexer.reset();
+            }
+        }
+    }
+
+    /**
+     * Indicates the content line being read is incomplete as no further data is currently available.
+     */
+    private static final class IncompleteInputException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // control flow only..
+            return this;
+        }
+    }
+
+    /**
+     * An incremental parse of one or more VCALENDARs, processing a single content line per step. Component
+     * names are tracked here rather than by recursion so that a parse may be suspended between any two content
+     * lines.
+     */
+    final class Session {
+
+        private final Lexer lexer;
+
+        private final ContentHandler handler;
+
+        private final Deque<String> components = new ArrayDeque<>();
+
+        private boolean started;
+
+        private boolean inCalendar;
+
+        /**
+         * Tracks the content of the current calendar included by the handler's projection.
+         */
+        private ContentProjection.Scope scope;
+
+        /**
+         * Indicates the projection limit has been reached, such that no further data is read.
+         */
+        private boolean complete;
+
+        private boolean ended;
+
+        private Session(final Lexer lexer, final ContentHandler handler) {
+            this.lexer = lexer;
+            this.handler = handler;
+        }
+
+        /**
+         * Parses the next content line, notifying the content handler accordingly.
+         *
+         * @return false if the end of the data has been reached, otherwise true
+         * @throws IOException where an error occurs reading data
+         * @throws ParserException where an error occurs parsing data
+         */
+        boolean step() throws IOException, ParserException {
+            try {
+                if (nextContentLine()) {
+                    return true;
+                }
+                if (!ended && handler.getInstrumentation() != null) {
+                    handler.getInstrumentation().linesUnfolded(lexer.linesUnfolded);
+                }
+                ended = true;
+                return false;
+            } catch (ParseException | URISyntaxException | RuntimeException e) {
+                throw new ParserException(e.getMessage(), lexer.getLineNumber(), e);
+            }
+        }
+
+        private boolean nextContentLine() throws IOException, ParseException, URISyntaxException,
+                ParserException {
+
+            if (complete) {
+                return false;
+            }
+            if (!lexer.nextContentLine()) {
+                if (inCalendar || !started) {
+                    throw new ParserException("Unexpected end of file", lexer.getLineNumber());
+                }
+                return false;
+            }
+
+            if (!inCalendar) {
+                if (!started) {
+                    lexer.skipByteOrderMark();
+                    started = true;
+                }
+                assertName(lexer, Component.BEGIN);
+                assertValue(lexer, Calendar.VCALENDAR, true);
+                inCalendar = true;
+                scope = handler.getProjection().newScope();
+                handler.startCalendar();
+            } else if (!lexer.scanName()) {
+                // a content line without a name is only tolerated with relaxed parsing..
+                return true;
+            } else if (lexer.nameEquals(Component.BEGIN)) {
+                final String name = componentName(lexer);
+                components.push(name);
+                if (scope.startComponent(name)) {
+                    handler.startComponent(name);
+                }
+            } else if (lexer.nameEquals(Component.END)) {
+                if (components.isEmpty()) {
+                    assertValue(lexer, Calendar.VCALENDAR, true);
+                    inCalendar = false;
+                    handler.endCalendar();
+                } else {
+                    final String name = components.pop();
+                    assertValue(lexer, name, false);
+                    if (scope.endComponent()) {
+                        handler.endComponent(name);
+                        if (scope.isComplete()) {
+                            // skip the remaining data..
+                            inCalendar = false;
+                            complete = true;
+                            handler.endCalendar();
+                        }
+                    }
+                }
+            } else if (scope.includesProperty(lexer.name())) {
+                parseProperty(lexer, handler, scope);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Parses an iCalendar property from the current content line. The whole property is read before the handler
+     * is notified, such that reading may be suspended to await further input (see {@link PushParser}) without
+     * partially notifying the handler.
+     */
+    private void parseProperty(final Lexer lexer, final ContentHandler handler, final ContentProjection.Scope scope)
+            throws IOException, ParseException, URISyntaxException, ParserException {
+
+        final String name = lexer.name();
+        // debugging..
+        if (log.isDebugEnabled()) {
+            log.debug(MessageFormat.format("Property [{0}]", name));
+        }
+
+        final int parameterCount = lexer.parameters();
+        if (lexer.current() < 0 && !lexer.continueValue()) {
+            throw new ParserException("Unexpected end of file", lexer.getLineNumber());
+        }
+        final String value = lexer.value();
+
+        handler.startProperty(name);
+
+        for (int i = 0; i < parameterCount; i++) {
+            scope.parameter(lexer.parameterNames[i], lexer.parameterValues[i]);
+            parseParameter(handler, lexer.parameterNames[i], lexer.parameterValues[i], lexer.parameterLines[i]);
+        }
+
+        scope.propertyValue(name, value);
+        try {
+            handler.propertyValue(value);
+        } catch (ParseException e) {
+            final ParseException eNew = new ParseException("[" + name + "] "
+                    + e.getMessage(), e.getErrorOffset());
+            eNew.initCause(e);
+            throw eNew;
+        }
+
+        handler.endProperty(name);
+    }
+
+    /**
+     * Notifies the handler of an iCalendar parameter read from the current content line.
+     */
+    private void parseParameter(final ContentHandler handler, final String paramName, final String paramValue,
+                                final int lineNo) throws ParserException {
+
+        // debugging..
+        if (log.isDebugEnabled()) {
+            log.debug("Parameter [" + paramName + "]");
+        }
+
+        try {
+            handler.parameter(paramName, paramValue);
+        } catch (ClassCastException cce) {
+            throw new ParserException("Error parsing parameter", lineNo, cce);
+        } catch (URISyntaxException | RuntimeException e) {
+            // report the line on which the parameter ends, rather than the content line..
+            throw new ParserException(e.getMessage(), lineNo, e);
+        }
+    }
+
+    private String componentName(final Lexer lexer) throws ParserException {
+        if (lexer.current() != ':') {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, ':', lexer.currentToken()),
+                    lexer.getLineNumber());
+        }
+        final String name = lexer.value();
+        if (name.isEmpty()) {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, "component name", EOL),
+                    lexer.getLineNumber());
+        }
+        return name;
+    }
+
+    private void assertName(final Lexer lexer, final String token) throws ParserException {
+        if (!lexer.scanName() || !lexer.nameEquals(token)) {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, token, lexer.name()),
+                    lexer.getLineNumber());
+        }
+    }
+
+    private void assertValue(final Lexer lexer, final String token, final boolean ignoreCase)
+            throws ParserException {
+
+        if (lexer.current() != ':') {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, ':', lexer.currentToken()),
+                    lexer.getLineNumber());
+        }
+        if (!lexer.valueEquals(token, ignoreCase)) {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, token, lexer.value()),
+                    lexer.getLineNumber());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("[" + token + "]");
+        }
+    }
+
+    /**
+     * Per-parse state: reads unfolded content lines from the underlying input into a line buffer and provides
+     * index-based access to the name, parameters and value of the current line.
+     */
+    private abstract static class Lexer {
+
+        final boolean relaxedUnfolding;
+
+        final boolean relaxedParsing;
+
+        char[] line = new char[INITIAL_LINE_SIZE];
+
+        int length;
+
+        /**
+         * The index of the next unconsumed character in the current content line.
+         */
+        private int cursor;
+
+        private int nameStart;
+
+        private int nameEnd;
+
+        int terminator;
+
+        /**
+         * The number of physical lines terminated so far.
+         */
+        int lineNumber;
+
+        /**
+         * The number of physical lines appended to a preceding line as folds.
+         */
+        int linesUnfolded;
+
+        /**
+         * The offsets in the line buffer at which each physical line of the current content line after the first
+         * begins.
+         */
+        int[] lineStarts = new int[INITIAL_PARAMETER_COUNT];
+
+        int lineStartCount;
+
+        private final String[] names = new String[NAME_POOL_SIZE];
+
+        String[] parameterNames = new String[INITIAL_PARAMETER_COUNT];
+
+        String[] parameterValues = new String[INITIAL_PARAMETER_COUNT];
+
+        /**
+         * The physical line numbers on which each parameter ends.
+         */
+        int[] parameterLines = new int[INITIAL_PARAMETER_COUNT];
+
+        Lexer(final boolean relaxedUnfolding, final boolean relaxedParsing) {
+            this.relaxedUnfolding = relaxedUnfolding;
+            this.relaxedParsing = relaxedParsing;
+        }
+
+        /**
+         * @return the physical line number on which the current content line ends
+         */
+        int getLineNumber() {
+            int line = lineNumber;
+            if (terminator == TERMINATOR_NONE) {
+                line += 1;
+            }
+            return line;
+        }
+
+        /**
+         * @param offset an offset in the line buffer
+         * @return the physical line number on which the character at the specified offset of the current content
+         * line appears
+         */
+        final int getLineNumber(final int offset) {
+            int line = getLineNumber();
+            for (int i = 0; i < lineStartCount; i++) {
+                if (lineStarts[i] > offset) {
+                    line--;
+                }
+            }
+            return line;
+        }
+
+        /**
+         * Records the start of a physical line appended to the current content line.
+         */
+        void lineStart() {
+            addLineStart(length);
+        }
+
+        final void addLineStart(final int offset) {
+            if (lineStartCount == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lineStartCount * 2);
+            }
+            lineStarts[lineStartCount++] = offset;
+        }
+
+        /**
+         * Reads the next non-empty content line into the line buffer.
+         * @return false if the end of the stream is reached before a content line is read
+         */
+        boolean nextContentLine() throws IOException {
+            do {
+                length = 0;
+                cursor = 0;
+                lineStartCount = 0;
+                if (!readUnfoldedLine(false)) {
+                    return false;
+                }
+            } while (length == 0);
+            return true;
+        }
+
+        /**
+         * Appends the following physical line to the current content line, separated by a line feed. This
+         * preserves the (non-conformant) behaviour of {@link CalendarParserImpl} allowing unquoted parameter
+         * values to span lines.
+         */
+        boolean continueLine() throws IOException {
+            return readUnfoldedLine(true);
+        }
+
+        /**
+         * Appends the following physical line to a content line that ends before its value, such that the
+         * following line is read as the value. This preserves the (non-conformant) behaviour of
+         * {@link CalendarParserImpl}, which reads past the end of such a line to find the value, and so reports
+         * the same errors and line numbers where a line is folded without a CRLF.
+         */
+        boolean continueValue() throws IOException {
+            cursor = length;
+            return continueLine();
+        }
+
+        /**
+         * Appends the next physical line and any continuation lines to the line buffer.
+         * @param continuation true if the line continues the current content line, and so must be separated from
+         *                     it by a line feed
+         * @return false if the end of the stream was reached before any characters were read
+         */
+        abstract boolean readUnfoldedLine(boolean continuation) throws IOException;
+
+        /**
+         * @return true if the terminator of the last physical line read permits a following continuation line
+         */
+        final boolean isFoldable() {
+            return terminator == TERMINATOR_CRLF || (terminator == TERMINATOR_LF && relaxedUnfolding);
+        }
+
+        void skipByteOrderMark() {
+            if (length > 0 && line[0] == BOM) {
+                cursor = 1;
+            }
+        }
+
+        /**
+         * Locates the name of the current content line.
+         * @return false if the line has no name and relaxed parsing is enabled
+         * @throws ParserException if the line has no name and relaxed parsing is not enabled
+         */
+        boolean scanName() throws ParserException {
+            nameStart = cursor;
+            while (nameStart < length && isDelimiter(line[nameStart])) {
+                if (!relaxedParsing) {
+                    throw new ParserException("Invalid property name", getLineNumber());
+                }
+                nameStart++;
+            }
+            nameEnd = nameStart;
+            while (nameEnd < length && !isDelimiter(line[nameEnd])) {
+                nameEnd++;
+            }
+            cursor = nameEnd;
+            return nameEnd > nameStart;
+        }
+
+        boolean nameEquals(final String name) {
+            return regionEquals(nameStart, nameEnd, name, false);
+        }
+
+        String name() {
+            return pooled(nameStart, nameEnd - nameStart);
+        }
+
+        /**
+         * @return the character at the cursor, or -1 at the end of the content line
+         */
+        int current() {
+            return cursor < length ? line[cursor] : -1;
+        }
+
+        String currentToken() {
+            return cursor < length ? String.valueOf(line[cursor]) : EOL;
+        }
+
+        /**
+         * Reads the parameters at the cursor into the parameter names and values.
+         * @return the number of parameters read
+         */
+        int parameters() throws IOException, ParserException {
+            int count = 0;
+            while (current() == ';') {
+                if (count == parameterNames.length) {
+                    parameterNames = Arrays.copyOf(parameterNames, count * 2);
+                    parameterValues = Arrays.copyOf(parameterValues, count * 2);
+                    parameterLines = Arrays.copyOf(parameterLines, count * 2);
+                }
+                parameterNames[count] = parameterName();
+                parameterValues[count] = parameterValue();
+                // consistent with CalendarParserImpl, the line of a closing quote or otherwise the delimiter..
+                parameterLines[count] = getLineNumber(line[cursor - 1] == '"' ? cursor - 1 : cursor);
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Consumes the ';' at the cursor and the parameter name and '=' that follow it.
+         */
+        String parameterName() throws ParserException {
+            final int start = ++cursor;
+            while (cursor < length && !isDelimiter(line[cursor])) {
+                cursor++;
+            }
+            if (cursor == start) {
+                throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, "parameter name",
+                        currentToken()), getLineNumber());
+            }
+            final String name = pooled(start, cursor - start);
+            if (current() != '=') {
+                throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, '=', currentToken()),
+                        getLineNumber());
+            }
+            cursor++;
+            return name;
+        }
+
+        /**
+         * Consumes a (possibly quoted, possibly comma-separated) parameter value, leaving the cursor at the
+         * following ';' or ':'. Quotes are preserved in the returned value.
+         */
+        String parameterValue() throws IOException, ParserException {
+            final int start = cursor;
+            while (true) {
+                boolean quoted = false;
+                if (cursor < length && line[cursor] == '"') {
+                    final int close = indexOf('"', cursor + 1);
+                    if (close < 0) {
+                        throw new ParserException("Unterminated quoted parameter value", getLineNumber());
+                    }
+                    cursor = close + 1;
+                    quoted = true;
+                }
+                while (cursor < length) {
+                    final char c = line[cursor];
+                    if (c == ';' || c == ':' || c == ',') {
+                        break;
+                    }
+                    cursor++;
+                    quoted = false;
+                }
+                if (cursor == length) {
+                    if (quoted) {
+                        break;
+                    }
+                    if (!continueLine()) {
+                        throw new ParserException("Unexpected end of file", getLineNumber());
+                    }
+                } else if (line[cursor] == ',') {
+                    cursor++;
+                } else {
+                    break;
+                }
+            }
+            return new String(line, start, cursor - start);
+        }
+
+        /**
+         * Consumes the remainder of the content line following the delimiter at the cursor.
+         */
+        String value() {
+            final int start = Math.min(cursor + 1, length);
+            cursor = length;
+            for (int i = start; i < length; i++) {
+                if (isControl(line[i])) {
+                    return stripControls(start);
+                }
+            }
+            return new String(line, start, length - start);
+        }
+
+        boolean valueEquals(final String value, final boolean ignoreCase) {
+            return regionEquals(Math.min(cursor + 1, length), length, value, ignoreCase);
+        }
+
+        private String stripControls(final int start) {
+            final StringBuilder b = new StringBuilder(length - start);
+            for (int i = start; i < length; i++) {
+                if (!isControl(line[i])) {
+                    b.append(line[i]);
+                }
+            }
+            return b.toString();
+        }
+
+        private int indexOf(final char c, final int from) {
+            for (int i = from; i < length; i++) {
+                if (line[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean regionEquals(final int start, final int end, final String s, final boolean ignoreCase) {
+            if (end - start != s.length()) {
+                return false;
+            }
+            for (int i = 0; i < s.length(); i++) {
+                final char c = line[start + i];
+                final char d = s.charAt(i);
+                if (c != d && (!ignoreCase || Character.toUpperCase(c) != Character.toUpperCase(d))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns a string for the specified region of the line, reusing a previously created instance with the
+         * same content where possible to avoid allocating a new string for every occurrence of a name.
+         */
+        private String pooled(final int start, final int count) {
+            int hash = 0;
+            for (int i = start; i < start + count; i++) {
+                hash = 31 * hash + line[i];
+            }
+            final int slot = (hash ^ (hash >>> 16)) & (NAME_POOL_SIZE - 1);
+            final String pooled = names[slot];
+            if (pooled != null && regionEquals(start, start + count, pooled, false)) {
+                return pooled;
+            }
+            final String name = new String(line, start, count);
+            names[slot] = name;
+            return name;
+        }
+
+        final void append(final char[] chars, final int start, final int count) {
+            ensureCapacity(length + count);
+            System.arraycopy(chars, start, line, length, count);
+            length += count;
+        }
+
+        final void append(final char c) {
+            ensureCapacity(length + 1);
+            line[length++] = c;
+        }
+
+        final void ensureCapacity(final int capacity) {
+            if (capacity > line.length) {
+                line = Arrays.copyOf(line, Math.max(capacity, line.length * 2));
+            }
+        }
+
+        /**
+         * Consistent with {@link CalendarParserImpl} a name is terminated by any character that is not a
+         * printable character in the range [32..255], or by one of the delimiters ':', ';', '=' or '"'.
+         */
+        private static boolean isDelimiter(final char c) {
+            return c < 32 || c > 255 || c == ':' || c == ';' || c == '=' || c == '"';
+        }
+
+        /**
+         * Consistent with {@link CalendarParserImpl} control characters other than tab are not retained in
+         * property values.
+         */
+        private static boolean isControl(final char c) {
+            return c <= 20 && c != '\t';
+        }
+    }
+
+    /**
+     * A lexer that reads characters from a reader.
+     */
+    private static final class CharLexer extends Lexer {
+
+        private final Reader in;
+
+        private final char[] buffer;
+
+        private int position;
+
+        private int limit;
+
+        CharLexer(final Reader in, final int bufferSize, final boolean relaxedUnfolding,
+                  final boolean relaxedParsing) {
+            super(relaxedUnfolding, relaxedParsing);
+            this.in = in;
+            this.buffer = new char[bufferSize];
+        }
+
+        /**
+         * @return the physical line number on which the current content line ends, including lines unfolded by
+         * an {@link UnfoldingReader} where applicable
+         */
+        @Override
+        int getLineNumber() {
+            int line = super.getLineNumber();
+            if (in instanceof UnfoldingReader) {
+                // need to take unfolded lines into account
+                line += ((UnfoldingReader) in).getLinesUnfolded();
+            }
+            return line;
+        }
+
+        @Override
+        boolean readUnfoldedLine(final boolean continuation) throws IOException {
+            if (continuation) {
+                append('\n');
+                lineStart();
+            }
+            if (!readPhysicalLine()) {
+                return false;
+            }
+            while (isFolded()) {
+                lineStart();
+                readPhysicalLine();
+                linesUnfolded++;
+            }
+            return true;
+        }
+
+        /**
+         * Appends the next physical line (excluding its terminator) to the line buffer.
+         * @return false if the end of the stream was reached before any characters were read
+         */
+        private boolean readPhysicalLine() throws IOException {
+            terminator = TERMINATOR_NONE;
+            boolean read = false;
+            while (position < limit || fill()) {
+                read = true;
+                final int start = position;
+                while (position < limit) {
+                    final char c = buffer[position];
+                    if (c == '\n' || c == '\r') {
+                        append(buffer, start, position - start);
+                        position++;
+                        lineNumber++;
+                        if (c == '\n') {
+                            terminator = TERMINATOR_LF;
+                        } else if (peek() == '\n') {
+                            position++;
+                            terminator = TERMINATOR_CRLF;
+                        } else {
+                            terminator = TERMINATOR_CR;
+                        }
+                        return true;
+                    }
+                    position++;
+                }
+                append(buffer, start, position - start);
+            }
+            return read;
+        }
+
+        /**
+         * Consumes the leading whitespace of the next physical line if it is a continuation of the current one.
+         */
+        private boolean isFolded() throws IOException {
+            if (isFoldable()) {
+                final int c = peek();
+                if (c == ' ' || c == '\t') {
+                    position++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int peek() throws IOException {
+            if (position < limit || fill()) {
+                return buffer[position];
+            }
+            return -1;
+        }
+
+        private boolean fill() throws IOException {
+            final int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                position = 0;
+                limit = 0;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+
+    /**
+     * A lexer that reads UTF-8 encoded bytes from an input stream or buffer. Line terminators and folding are
+     * identified from the raw octets, which is safe as the octets of a multi-byte UTF-8 sequence are never in the
+     * ASCII range. ASCII octets are copied directly to the line buffer, and any other octets of a content line
+     * are decoded once the line is unfolded, such that a multi-byte sequence split by a fold is decoded correctly.
+     * <p/>
+     * Data from a file channel is read from a read-only mapping of the file, which is remapped at the end of each
+     * window until the end of the file.
+     */
+    private static final class ByteLexer extends Lexer {
+
+        private final InputStream in;
+
+        private final FileChannel channel;
+
+        private final int windowSize;
+
+        /**
+         * The position in the file channel at which the next window is mapped.
+         */
+        private long channelPosition;
+
+        private ByteBuffer buffer;
+
+        /**
+         * The backing array of the buffer, or null if the buffer is not backed by an accessible array.
+         */
+        private byte[] array;
+
+        private final int arrayOffset;
+
+        private int position;
+
+        private int limit;
+
+        /**
+         * Octets of the current content line that are pending decoding.
+         */
+        private byte[] octets = new byte[INITIAL_LINE_SIZE];
+
+        private int octetCount;
+
+        /**
+         * Indicates data is pushed to the lexer (see {@link #push(ByteBuffer)}) rather than read by it.
+         */
+        private final boolean pushed;
+
+        private boolean endOfInput;
+
+        private int markPosition;
+
+        private int markLineNumber;
+
+        private int markTerminator;
+
+        ByteLexer(final InputStream in, final int bufferSize, final boolean relaxedUnfolding,
+                  final boolean relaxedParsing) {
+            super(relaxedUnfolding, relaxedParsing);
+            this.in = in;
+            this.channel = null;
+            this.windowSize = 0;
+            this.array = new byte[bufferSize];
+            this.arrayOffset = 0;
+            this.buffer = ByteBuffer.wrap(array);
+            this.pushed = false;
+        }
+
+        ByteLexer(final int bufferSize, final boolean relaxedUnfolding, final boolean relaxedParsing) {
+            super(relaxedUnfolding, relaxedParsing);
+            this.in = null;
+            this.channel = null;
+            this.windowSize = 0;
+            this.array = new byte[bufferSize];
+            this.arrayOffset = 0;
+            this.buffer = ByteBuffer.wrap(array);
+            this.pushed = true;
+        }
+
+        ByteLexer(final ByteBuffer in, final boolean relaxedUnfolding, final boolean relaxedParsing) {
+            super(relaxedUnfolding, relaxedParsing);
+            this.in = null;
+            this.channel = null;
+            this.windowSize = 0;
+            this.buffer = in;
+            if (in.hasArray()) {
+                this.array = in.array();
+                this.arrayOffset = in.arrayOffset();
+            } else {
+                this.array = null;
+                this.arrayOffset = 0;
+            }
+            this.position = in.position();
+            this.limit = in.limit();
+            this.pushed = false;
+        }
+
+        ByteLexer(final FileChannel in, final long position, final int windowSize, final boolean relaxedUnfolding,
+                  final boolean relaxedParsing) {
+            super(relaxedUnfolding, relaxedParsing);
+            this.in = null;
+            this.channel = in;
+            this.windowSize = windowSize;
+            this.channelPosition = position;
+            this.array = null;
+            this.arrayOffset = 0;
+            this.pushed = false;
+        }
+
+        /**
+         * Appends the remaining bytes of the specified buffer to the unread data, discarding data that precedes
+         * the mark.
+         */
+        void push(final ByteBuffer in) {
+            final int unread = limit - markPosition;
+            final int count = in.remaining();
+            if (unread + count > array.length) {
+                final byte[] grown = new byte[Math.max(unread + count, array.length * 2)];
+                System.arraycopy(array, markPosition, grown, 0, unread);
+                array = grown;
+                buffer = ByteBuffer.wrap(array);
+            } else if (markPosition > 0) {
+                System.arraycopy(array, markPosition, array, 0, unread);
+            }
+            position -= markPosition;
+            markPosition = 0;
+            limit = unread;
+            in.get(array, limit, count);
+            limit += count;
+        }
+
+        /**
+         * Indicates no further data will be pushed, such that reaching the end of the data is the end of input.
+         */
+        void endOfInput() {
+            endOfInput = true;
+        }
+
+        /**
+         * Marks the start of the next content line, to which the lexer may be reset if the line is incomplete.
+         */
+        void mark() {
+            markPosition = position;
+            markLineNumber = lineNumber;
+            markTerminator = terminator;
+        }
+
+        void reset() {
+            position = markPosition;
+            lineNumber = markLineNumber;
+            terminator = markTerminator;
+            octetCount = 0;
+        }
+
+        @Override
+        boolean readUnfoldedLine(final boolean continuation) throws IOException {
+            if (continuation) {
+                append('\n');
+                lineStart();
+            }
+            if (!readPhysicalLine()) {
+                return false;
+            }
+            while (isFolded()) {
+                lineStart();
+                readPhysicalLine();
+                linesUnfolded++;
+            }
+            if (octetCount > 0) {
+                for (int i = 0; i < lineStartCount; i++) {
+                    if (lineStarts[i] < 0) {
+                        lineStarts[i] = length + charCount(-1 - lineStarts[i]);
+                    }
+                }
+                final String decoded = new String(octets, 0, octetCount, StandardCharsets.UTF_8);
+                ensureCapacity(length + decoded.length());
+                decoded.getChars(0, decoded.length(), line, length);
+                length += decoded.length();
+                octetCount = 0;
+            }
+            return true;
+        }
+
+        /**
+         * Appends the next physical line (excluding its terminator) to the line buffer.
+         * @return false if the end of the input was reached before any octets were read
+         */
+        private boolean readPhysicalLine() throws IOException {
+            terminator = TERMINATOR_NONE;
+            boolean read = false;
+            while (position < limit || fill()) {
+                read = true;
+                final int start = position;
+                int end = start;
+                int bits = 0;
+                if (array != null) {
+                    while (end < limit) {
+                        final byte b = array[arrayOffset + end];
+                        if (b == '\n' || b == '\r') {
+                            break;
+                        }
+                        bits |= b;
+                        end++;
+                    }
+                } else {
+                    while (end < limit) {
+                        final byte b = buffer.get(end);
+                        if (b == '\n' || b == '\r') {
+                            break;
+                        }
+                        bits |= b;
+                        end++;
+                    }
+                }
+                append(start, end - start, bits >= 0);
+                position = end;
+
+                if (position < limit) {
+                    final int c = octetAt(position++);
+                    lineNumber++;
+                    if (c == '\n') {
+                        terminator = TERMINATOR_LF;
+                    } else if (peek() == '\n') {
+                        position++;
+                        terminator = TERMINATOR_CRLF;
+                    } else {
+                        terminator = TERMINATOR_CR;
+                    }
+                    return true;
+                }
+            }
+            return read;
+        }
+
+        /**
+         * Consumes the leading whitespace of the next physical line if it is a continuation of the current one.
+         */
+        private boolean isFolded() throws IOException {
+            if (isFoldable()) {
+                final int c = peek();
+                if (c == ' ' || c == '\t') {
+                    position++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int peek() throws IOException {
+            if (position < limit || fill()) {
+                return octetAt(position);
+            }
+            return -1;
+        }
+
+        private int octetAt(final int index) {
+            return array != null ? array[arrayOffset + index] : buffer.get(index);
+        }
+
+        private boolean fill() throws IOException {
+            if (channel != null) {
+                return map();
+            }
+            if (pushed) {
+                if (endOfInput) {
+                    return false;
+                }
+                throw new IncompleteInputException();
+            }
+            if (in == null) {
+                return false;
+            }
+            final int read = in.read(array, 0, array.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+
+        /**
+         * Maps the next window of the file channel.
+         * @return false if the end of the file has been reached
+         */
+        private boolean map() throws IOException {
+            final long remaining = channel.size() - channelPosition;
+            if (remaining <= 0) {
+                return false;
+            }
+            final int size = (int) Math.min(remaining, windowSize);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, channelPosition, size);
+            channelPosition += size;
+            position = 0;
+            limit = size;
+            return true;
+        }
+
+        /**
+         * The offset of a line starting within octets pending decoding is resolved once the octets are decoded.
+         */
+        @Override
+        void lineStart() {
+            if (octetCount > 0) {
+                addLineStart(-1 - octetCount);
+            } else {
+                super.lineStart();
+            }
+        }
+
+        /**
+         * @return the number of characters decoded from the specified number of pending octets
+         */
+        private int charCount(final int count) {
+            int chars = 0;
+            for (int i = 0; i < count; i++) {
+                final int b = octets[i] & 0xff;
+                if ((b & 0xc0) != 0x80) {
+                    // supplementary characters are decoded as a surrogate pair..
+                    chars += (b & 0xf8) == 0xf0 ? 2 : 1;
+                }
+            }
+            return chars;
+        }
+
+        /**
+         * Appends octets to the line buffer where they are known to be ASCII and no octets are pending decoding,
+         * otherwise appends them to the octets pending decoding.
+         */
+        private void append(final int start, final int count, final boolean ascii) {
+            if (ascii && octetCount == 0) {
+                ensureCapacity(length + count);
+                for (int i = 0; i < count; i++) {
+                    line[length + i] = (char) octetAt(start + i);
+                }
+                length += count;
+            } else {
+                if (octetCount + count > octets.length) {
+                    octets = Arrays.copyOf(octets, Math.max(octetCount + count, octets.length * 2));
+                }
+                if (array != null) {
+                    System.arraycopy(array, arrayOffset + start, octets, octetCount, count);
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        octets[octetCount + i] = buffer.get(start + i);
+                    }
+                }
+                octetCount += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.Parameter;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.util.Strings;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Specifies the subset of calendar content required from a parse. Excluded components (including any nested
+ * components) and excluded properties are skipped by the parser where supported (i.e. {@link ContentLineParser})
+ * without notifying the content handler, and are otherwise ignored by {@link DefaultContentHandler}.
+ * <p/>
+ * Components are included by name at any depth, so nested components such as VALARM, or the STANDARD and DAYLIGHT
+ * observances of a VTIMEZONE, are excluded unless also specified. Properties may be restricted per component
+ * name (or {@link Calendar#VCALENDAR} for calendar properties), and components without a property restriction
+ * include all of their properties. For example, to parse only the properties of events required to determine
+ * availability:
+ * <pre>
+ * ContentProjection projection = new ContentProjection()
+ *         .withComponentNames("VEVENT", "VTIMEZONE", "STANDARD", "DAYLIGHT")
+ *         .withPropertyNames("VEVENT", "DTSTART", "DTEND", "RRULE", "EXDATE", "TRANSP");
+ * </pre>
+ * A limit completes the calendar once the specified number of top-level components have been included. Timezones
+ * are not counted towards the limit by default, as they support the components that follow them. Once the limit
+ * is reached, any further VTIMEZONE components (where included) are included only until each timezone referenced
+ * by a TZID parameter of the included content is defined, and all other content is skipped.
+ * <p/>
+ * Instances are immutable.
+ */
+public class ContentProjection {
+
+    /**
+     * A projection that includes all content.
+     */
+    public static final ContentProjection ALL = new ContentProjection();
+
+    private Set<String> componentNames;
+
+    private Map<String, Set<String>> propertyNames = Collections.emptyMap();
+
+    private int limit;
+
+    private Set<String> limitedComponentNames;
+
+    /**
+     * @param componentNames the names of the components to include
+     * @return a new projection that includes only the specified components
+     */
+    public ContentProjection withComponentNames(String... componentNames) {
+        ContentProjection projection = copy();
+        projection.componentNames = toUpperCase(componentNames);
+        return projection;
+    }
+
+    /**
+     * @param componentName the name of a component, or {@link Calendar#VCALENDAR} for calendar properties
+     * @param propertyNames the names of the properties of the component to include
+     * @return a new projection that includes only the specified properties of the specified component
+     */
+    public ContentProjection withPropertyNames(String componentName, String... propertyNames) {
+        ContentProjection projection = copy();
+        projection.propertyNames = new HashMap<>(this.propertyNames);
+        projection.propertyNames.put(componentName.toUpperCase(), toUpperCase(propertyNames));
+        return projection;
+    }
+
+    /**
+     * @param limit the maximum number of top-level components (other than VTIMEZONE) to include, or zero for no
+     *              limit
+     * @return a new projection that completes a calendar once the specified number of top-level components other
+     * than timezones have been included
+     */
+    public ContentProjection withLimit(int limit) {
+        return withLimit(limit, (Set<String>) null);
+    }
+
+    /**
+     * @param limit the maximum number of top-level components of the specified names to include, or zero for no
+     *              limit
+     * @param componentNames the names of the components counted towards the limit
+     * @return a new projection that completes a calendar once the specified number of top-level components of the
+     * specified names have been included
+     */
+    public ContentProjection withLimit(int limit, String... componentNames) {
+        return withLimit(limit, toUpperCase(componentNames));
+    }
+
+    private ContentProjection withLimit(int limit, Set<String> componentNames) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        ContentProjection projection = copy();
+        projection.limit = limit;
+        projection.limitedComponentNames = componentNames;
+        return projection;
+    }
+
+    /**
+     * @param name a component name
+     * @return true if the specified component is included
+     */
+    public boolean includesComponent(String name) {
+        return componentNames == null || componentNames.contains(name)
+                || componentNames.contains(name.toUpperCase());
+    }
+
+    /**
+     * @param componentName the name of a component, or {@link Calendar#VCALENDAR} for calendar properties
+     * @param name a property name
+     * @return true if the specified property of the specified component is included
+     */
+    public boolean includesProperty(String componentName, String name) {
+        if (propertyNames.isEmpty()) {
+            return true;
+        }
+        Set<String> names = propertyNames.get(componentName);
+        if (names == null) {
+            names = propertyNames.get(componentName.toUpperCase());
+        }
+        return names == null || names.contains(name) || names.contains(name.toUpperCase());
+    }
+
+    /**
+     * @return the maximum number of top-level components to include, or zero for no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param name a component name
+     * @return true if the specified top-level component is counted towards the limit
+     */
+    public boolean isLimited(String name) {
+        if (limitedComponentNames == null) {
+            return !Component.VTIMEZONE.equalsIgnoreCase(name);
+        }
+        return limitedComponentNames.contains(name.toUpperCase());
+    }
+
+    /**
+     * @return a new scope for tracking the content of a calendar against this projection
+     */
+    Scope newScope() {
+        return new Scope();
+    }
+
+    private ContentProjection copy() {
+        ContentProjection projection = new ContentProjection();
+        projection.componentNames = this.componentNames;
+        projection.propertyNames = this.propertyNames;
+        projection.limit = this.limit;
+        projection.limitedComponentNames = this.limitedComponentNames;
+        return projection;
+    }
+
+    private static Set<String> toUpperCase(String... names) {
+        return Collections.unmodifiableSet(Arrays.stream(names).map(String::toUpperCase)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Tracks the components of a single calendar to determine which content is included by the projection.
+     */
+    final class Scope {
+
+        private final Deque<String> components = new ArrayDeque<>();
+
+        /**
+         * The depth of nested components within the outermost excluded component.
+         */
+        private int skipped;
+
+        private int count;
+
+        /**
+         * Timezones defined by included VTIMEZONE components, tracked only where a limit applies.
+         */
+        private final Set<String> definedTimezones = new HashSet<>();
+
+        /**
+         * Timezones referenced by included properties and not yet defined, tracked only where a limit applies.
+         */
+        private final Set<String> unresolvedTimezones = new HashSet<>();
+
+        /**
+         * @param name a component name
+         * @return true if the component is included
+         */
+        boolean startComponent(String name) {
+            if (skipped > 0 || !includesComponent(name) || components.isEmpty() && isLimitReached()
+                    && (unresolvedTimezones.isEmpty() || !Component.VTIMEZONE.equalsIgnoreCase(name))) {
+                skipped++;
+                return false;
+            }
+            components.push(name);
+            return true;
+        }
+
+        /**
+         * @return true if the component ended is included
+         */
+        boolean endComponent() {
+            if (skipped > 0) {
+                skipped--;
+                return false;
+            }
+            final String name = components.pop();
+            if (components.isEmpty() && isLimited(name)) {
+                count++;
+            }
+            return true;
+        }
+
+        /**
+         * @param name a property name
+         * @return true if the property of the current component is included
+         */
+        boolean includesProperty(String name) {
+            if (skipped > 0 || components.isEmpty() && isLimitReached()) {
+                return false;
+            }
+            return ContentProjection.this.includesProperty(
+                    components.isEmpty() ? Calendar.VCALENDAR : components.peek(), name);
+        }
+
+        /**
+         * Records a parameter of an included property, such that timezones referenced by the included content may
+         * be included after the limit is reached.
+         * @param name a parameter name
+         * @param value a parameter value
+         */
+        void parameter(String name, String value) {
+            if (limit > 0 && Parameter.TZID.equalsIgnoreCase(name)) {
+                final String tzId = Strings.unquote(value);
+                if (!definedTimezones.contains(tzId)) {
+                    unresolvedTimezones.add(tzId);
+                }
+            }
+        }
+
+        /**
+         * Records the value of an included property, such that timezones defined by the included content are
+         * known.
+         * @param name a property name
+         * @param value a property value
+         */
+        void propertyValue(String name, String value) {
+            if (limit > 0 && components.size() == 1 && Property.TZID.equalsIgnoreCase(name)
+                    && Component.VTIMEZONE.equalsIgnoreCase(components.peek())) {
+                definedTimezones.add(value);
+                unresolvedTimezones.remove(value);
+            }
+        }
+
+        /**
+         * @return true if the limit of top-level components has been reached, and each timezone referenced by the
+         * included content is defined (where timezones are included)
+         */
+        boolean isComplete() {
+            return isLimitReached() && components.isEmpty()
+                    && (unresolvedTimezones.isEmpty() || !includesComponent(Component.VTIMEZONE));
+        }
+
+        private boolean isLimitReached() {
+            return limit > 0 && count >= limit;
+        }
+    }
+}
@@ -6,11 +6,13 @@ import net.fortuna.ical4j.model.component.VTimeZone;
 import net.fortuna.ical4j.model.parameter.TzId;
 import net.fortuna.ical4j.model.property.DateListProperty;
 import net.fortuna.ical4j.model.property.DateProperty;
+import net.fortuna.ical4j.model.property.ImmutableProperty;
 import net.fortuna.ical4j.util.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -32,6 +34,8 @@ public class DefaultContentHandler implements ContentHandler {
 
     private final Consumer<Calendar> consumer;
 
+    private final Consumer<CalendarComponent> componentConsumer;
+
     private PropertyBuilder propertyBuilder;
 
     /**
@@ -41,6 +45,38 @@ public class DefaultContentHandler implements ContentHandler {
 
     private Calendar calendar;
 
+    /**
+     * Tracks the content of the current calendar included by the context projection.
+     */
+    private ContentProjection.Scope scope;
+
+    /**
+     * The name of the current property, where included by the context projection.
+     */
+    private String propertyName;
+
+    /**
+     * The canonical content of the current top-level VTIMEZONE, used to identify identical definitions.
+     */
+    private StringBuilder timezoneContent;
+
+    /**
+     * The unfolded content line of the current property, where source is preserved.
+     */
+    private StringBuilder propertySource;
+
+    /**
+     * Receives measurements of parsing, or null if instrumentation is disabled.
+     */
+    private final InstrumentationListener instrumentation;
+
+    /**
+     * The start time of the current calendar, used with the time measured in other phases to determine lexing time.
+     */
+    private long calendarStart;
+
+    private long phaseNanos;
+
     public DefaultContentHandler(Consumer<Calendar> consumer, TimeZoneRegistry tzRegistry) {
         this(consumer, tzRegistry, new ContentHandlerContext());
     }
@@ -48,9 +84,28 @@ public class DefaultContentHandler implements ContentHandler {
     public DefaultContentHandler(Consumer<Calendar> consumer, TimeZoneRegistry tzRegistry,
                                  ContentHandlerContext context) {
 
+        this(consumer, tzRegistry, context, null);
+    }
+
+    /**
+     * Constructs a content handler that passes each top-level component to the specified component consumer as
+     * soon as it is parsed, rather than adding it to the calendar. TZID references in a component are resolved
+     * when the component ends, so they will only be resolved against VTIMEZONEs that precede the component (or
+     * are otherwise available from the timezone registry).
+     *
+     * @param consumer a consumer of parsed calendars, excluding top-level components
+     * @param tzRegistry a timezone registry in which to register parsed VTIMEZONEs
+     * @param context the content handler context
+     * @param componentConsumer a consumer of parsed top-level components
+     */
+    public DefaultContentHandler(Consumer<Calendar> consumer, TimeZoneRegistry tzRegistry,
+                                 ContentHandlerContext context, Consumer<CalendarComponent> componentConsumer) {
+
         this.consumer = consumer;
         this.tzRegistry = tzRegistry;
         this.context = context;
+        this.componentConsumer = componentConsumer;
+        this.instrumentation = context.getInstrumentation();
     }
 
     public ComponentBuilder<CalendarComponent> getComponentBuilder() {
@@ -69,12 +124,24 @@ public class DefaultContentHandler implements ContentHandler {
         calendar = new Calendar();
         components.clear();
         propertiesWithTzId = new ArrayList<>();
+        scope = context.getProjection().newScope();
+        timezoneContent = null;
+        if (instrumentation != null) {
+            calendarStart = System.nanoTime();
+            phaseNanos = 0;
+        }
     }
 
     @Override
     public void endCalendar() throws IOException {
+        final long start = startPhase();
         resolveTimezones();
+        endPhase(InstrumentationListener.Phase.TIMEZONE_RESOLUTION, start);
 
+        if (instrumentation != null) {
+            instrumentation.phase(InstrumentationListener.Phase.LEXING,
+                    System.nanoTime() - calendarStart - phaseNanos);
+        }
         consumer.accept(calendar);
     }
 
@@ -83,15 +150,27 @@ public class DefaultContentHandler implements ContentHandler {
         if (components.size() > 10) {
             throw new RuntimeException("Components nested too deep");
         }
+        if (!scope.startComponent(name)) {
+            return;
+        }
+        if (components.isEmpty() && Component.VTIMEZONE.equalsIgnoreCase(name)
+                && TimeZoneDefinitionCache.INSTANCE.isEnabled()) {
+            timezoneContent = new StringBuilder();
+        }
+        appendTimezoneContent('B', name.toUpperCase());
 
         ComponentBuilder<CalendarComponent> componentBuilder = new ComponentBuilder<>(
-                context.getComponentFactorySupplier().get());
+                context.getComponentFactories());
         componentBuilder.name(name);
         components.push(componentBuilder);
     }
 
     @Override
     public void endComponent(String name) {
+        if (!scope.endComponent()) {
+            return;
+        }
+        appendTimezoneContent('E', name.toUpperCase());
         assertComponent(getComponentBuilder());
 
         final ComponentBuilder<CalendarComponent> componentBuilder =
@@ -102,24 +181,56 @@ public class DefaultContentHandler implements ContentHandler {
         final ComponentBuilder<CalendarComponent> parent =
                 getComponentBuilder();
 
+        if (instrumentation != null) {
+            instrumentation.component(name);
+        }
+
         if (parent != null) {
-            Component subComponent = componentBuilder.build();
+            Component subComponent = buildComponent(componentBuilder);
             parent.subComponent(subComponent);
         } else {
-            CalendarComponent component = componentBuilder.build();
-            calendar.getComponents().add(component);
+            CalendarComponent component = (CalendarComponent) buildComponent(componentBuilder);
+            if (componentConsumer == null) {
+                calendar.getComponents().add(component);
+            }
             if (component instanceof VTimeZone && tzRegistry != null) {
+                final long start = startPhase();
                 // register the timezone for use with iCalendar objects..
-                tzRegistry.register(new TimeZone((VTimeZone) component));
+                if (timezoneContent != null) {
+                    tzRegistry.register(TimeZoneDefinitionCache.INSTANCE.getTimeZone(timezoneContent,
+                            (VTimeZone) component));
+                } else {
+                    tzRegistry.register(new TimeZone((VTimeZone) component));
+                }
+                endPhase(InstrumentationListener.Phase.TIMEZONE_REGISTRATION, start);
+            }
+            timezoneContent = null;
+            if (componentConsumer != null) {
+                // the component is released before the end of the calendar, so resolve timezones now..
+                final long start = startPhase();
+                try {
+                    resolveTimezones();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                endPhase(InstrumentationListener.Phase.TIMEZONE_RESOLUTION, start);
+                propertiesWithTzId.clear();
+                componentConsumer.accept(component);
             }
         }
     }
 
     @Override
     public void startProperty(String name) {
-        if (!context.getIgnoredPropertyNames().contains(name.toUpperCase())) {
-            propertyBuilder = new PropertyBuilder(context.getPropertyFactorySupplier().get()).name(name);
+        propertyName = scope.includesProperty(name) ? name : null;
+        if (propertyName != null && !context.getIgnoredPropertyNames().contains(name.toUpperCase())) {
+            propertyBuilder = new PropertyBuilder(context.getPropertyFactories()).name(name)
+                    .deferValue(context.isDeferPropertyValues());
             propertyHasTzId = false;
+            appendTimezoneContent('P', name.toUpperCase());
+            if (context.isPreserveSource()) {
+                propertySource = new StringBuilder(name);
+            }
         } else {
             propertyBuilder = null;
         }
@@ -127,22 +238,45 @@ public class DefaultContentHandler implements ContentHandler {
 
     @Override
     public void propertyValue(String value) {
+        if (propertyName != null) {
+            scope.propertyValue(propertyName, value);
+        }
         if (propertyBuilder != null) {
             propertyBuilder.value(value);
+            appendTimezoneContent('V', value);
+            if (propertySource != null) {
+                propertySource.append(':').append(value);
+            }
         }
     }
 
     @Override
     public void endProperty(String name) throws URISyntaxException, ParseException, IOException {
-        if (!context.getIgnoredPropertyNames().contains(name.toUpperCase())) {
+        if (scope.includesProperty(name) && !context.getIgnoredPropertyNames().contains(name.toUpperCase())) {
             assertProperty(propertyBuilder);
-            Property property = propertyBuilder.build();
+            Property property;
+            final long start = startPhase();
+            try {
+                property = propertyBuilder.build();
+            } catch (URISyntaxException | ParseException | IOException | RuntimeException e) {
+                failure(InstrumentationListener.Phase.PROPERTY, e);
+                throw e;
+            } finally {
+                endPhase(InstrumentationListener.Phase.PROPERTY, start);
+            }
+            if (instrumentation != null) {
+                instrumentation.property(name);
+            }
 
             if (propertyHasTzId) {
                 propertiesWithTzId.add(property);
             }
             // replace with a constant instance if applicable..
             property = Constants.forProperty(property);
+            if (propertySource != null && !(property instanceof ImmutableProperty)) {
+                property.setSource(propertySource.toString());
+            }
+            propertySource = null;
             if (getComponentBuilder() != null) {
                 getComponentBuilder().property(property);
             } else if (calendar != null) {
@@ -154,9 +288,20 @@ public class DefaultContentHandler implements ContentHandler {
 
     @Override
     public void parameter(String name, String value) throws URISyntaxException {
+        if (propertyName != null) {
+            scope.parameter(name, value);
+        }
         if (propertyBuilder != null) {
-            Parameter parameter = new ParameterBuilder(context.getParameterFactorySupplier().get())
-                    .name(name).value(value).build();
+            Parameter parameter;
+            final long start = startPhase();
+            try {
+                parameter = new ParameterBuilder(context.getParameterFactories()).name(name).value(value).build();
+            } catch (URISyntaxException | RuntimeException e) {
+                failure(InstrumentationListener.Phase.PARAMETER, e);
+                throw e;
+            } finally {
+                endPhase(InstrumentationListener.Phase.PARAMETER, start);
+            }
 
             if (parameter instanceof TzId && tzRegistry != null) {
                 // VTIMEZONE may be defined later, so so keep
@@ -165,6 +310,63 @@ public class DefaultContentHandler implements ContentHandler {
                 propertyHasTzId = true;
             }
             propertyBuilder.parameter(parameter);
+            appendTimezoneContent('N', name.toUpperCase());
+            appendTimezoneContent('A', value);
+            if (propertySource != null) {
+                propertySource.append(';').append(name).append('=').append(value);
+            }
+        }
+    }
+
+    @Override
+    public ContentProjection getProjection() {
+        return context.getProjection();
+    }
+
+    @Override
+    public InstrumentationListener getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Appends a length-prefixed token to the content of the current VTIMEZONE, if any.
+     */
+    private void appendTimezoneContent(char type, String token) {
+        if (timezoneContent != null) {
+            timezoneContent.append(type).append(token.length()).append(':').append(token);
+        }
+    }
+
+    private Component buildComponent(ComponentBuilder<?> componentBuilder) {
+        final long start = startPhase();
+        try {
+            return componentBuilder.build();
+        } catch (RuntimeException e) {
+            failure(InstrumentationListener.Phase.COMPONENT, e);
+            throw e;
+        } finally {
+            endPhase(InstrumentationListener.Phase.COMPONENT, start);
+        }
+    }
+
+    /**
+     * @return the start time of a phase, if instrumentation is enabled
+     */
+    private long startPhase() {
+        return instrumentation != null ? System.nanoTime() : 0;
+    }
+
+    private void endPhase(InstrumentationListener.Phase phase, long start) {
+        if (instrumentation != null) {
+            final long nanos = System.nanoTime() - start;
+            phaseNanos += nanos;
+            instrumentation.phase(phase, nanos);
+        }
+    }
+
+    private void failure(InstrumentationListener.Phase phase, Exception cause) {
+        if (instrumentation != null) {
+            instrumentation.failure(phase, cause);
         }
     }
 
@@ -194,7 +396,10 @@ public class DefaultContentHandler implements ContentHandler {
                 final TimeZone timezone = tzRegistry.getTimeZone(tzParam.getValue());
 
                 // If timezone found, then update date property
-                if (timezone != null) {
+                if (timezone != null && property.isValueDeferred() && property instanceof DateProperty) {
+                    // a deferred value is parsed using the updated timezone..
+                    ((DateProperty) property).setTimeZone(timezone);
+                } else if (timezone != null) {
 
                     // Get the String representation of date(s) as
                     // we will need this after changing the timezone
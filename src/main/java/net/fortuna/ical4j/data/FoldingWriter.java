@@ -43,7 +43,8 @@ import java.io.Writer;
  * $Id$ [Apr 6, 2004]
  * </pre>
  * <p/>
- * A writer that performs iCalendar folding as it writes.
+ * A writer that performs iCalendar folding as it writes. Lines are folded such that they do not exceed the fold
+ * length in octets when encoded as UTF-8, as required by RFC5545.
  *
  * @author Ben Fortuna
  */
@@ -61,10 +62,22 @@ public class FoldingWriter extends FilterWriter {
 
     private static final char[] FOLD_PATTERN = {'\r', '\n', ' '};
 
+    private static final int BUFFER_SIZE = 1024;
+
     private final Logger log = LoggerFactory.getLogger(FoldingWriter.class);
 
+    /**
+     * The length of the current line in UTF-8 encoded octets.
+     */
     private int lineLength;
 
+    /**
+     * Indicates the last character written was a high surrogate.
+     */
+    private boolean highSurrogate;
+
+    private final char[] chars = new char[BUFFER_SIZE];
+
     private final int foldLength;
 
     /**
@@ -97,37 +110,44 @@ public class FoldingWriter extends FilterWriter {
     }
 
     /**
+     * Writes the specified characters, folding lines that would otherwise exceed the fold length. Line length is
+     * measured in UTF-8 encoded octets, and a fold is never inserted within a surrogate pair. Characters between
+     * folds are written to the underlying writer in bulk.
+     * <p/>
      * {@inheritDoc}
      */
     @Override
     public final void write(final char[] buffer, final int offset,
                             final int length) throws IOException {
-        final int maxIndex = offset + length - 1;
-        for (int i = offset; i <= maxIndex; i++) {
-
-            // debugging..
-            if (log.isTraceEnabled()) {
-                log.trace("char [" + buffer[i] + "], line length ["
-                        + lineLength + "]");
-            }
+        final int end = offset + length;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            final char c = buffer[i];
+            final int octets = octets(c);
+            highSurrogate = Character.isHighSurrogate(c);
 
             // check for fold first so we don't unnecessarily fold after
             // no more data..
-            if (lineLength >= foldLength) {
-                super.write(FOLD_PATTERN, 0, FOLD_PATTERN.length);
+            if (octets > 0 && lineLength + octets > foldLength) {
+                // debugging..
+                if (log.isTraceEnabled()) {
+                    log.trace("fold at char [" + c + "], line length [" + lineLength + "]");
+                }
+                out.write(buffer, start, i - start);
+                out.write(FOLD_PATTERN, 0, FOLD_PATTERN.length);
+                start = i;
 
                 // re-initialise to 1 to account for the space in fold pattern..
                 lineLength = 1;
             }
 
-            super.write(buffer[i]);
-
-            if (buffer[i] == '\r' || buffer[i] == '\n') {
+            if (c == '\r' || c == '\n') {
                 lineLength = 0;
             } else {
-                lineLength += 1;
+                lineLength += octets;
             }
         }
+        out.write(buffer, start, end - start);
     }
 
     /**
@@ -136,7 +156,28 @@ public class FoldingWriter extends FilterWriter {
     @Override
     public final void write(final String str, final int off, final int len)
             throws IOException {
-        write(str.toCharArray(), off, len);
+        for (int i = off; i < off + len; i += chars.length) {
+            final int count = Math.min(chars.length, off + len - i);
+            str.getChars(i, i + count, chars, 0);
+            write(chars, 0, count);
+        }
+    }
+
+    /**
+     * @return the number of octets in the UTF-8 encoding of the specified character, where the octets of a
+     * surrogate pair are attributed to the high surrogate
+     */
+    private int octets(final char c) {
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isHighSurrogate(c)) {
+            return 4;
+        } else if (Character.isLowSurrogate(c) && highSurrogate) {
+            return 0;
+        }
+        return 3;
     }
 
     /*
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+/**
+ * Receives measurements of parsing and serialization, such as the time spent in each phase and the content
+ * processed. A listener is enabled for parsing via {@link ContentHandlerContext#withInstrumentation(InstrumentationListener)}
+ * and for serialization via {@link CalendarOutputter#setInstrumentation(InstrumentationListener)}. Where no listener is
+ * specified no measurements are taken.
+ * <p/>
+ * Listeners may be shared by multiple builders and outputters, and so should be thread-safe.
+ *
+ * @see AggregatingInstrumentationListener
+ */
+public interface InstrumentationListener {
+
+    /**
+     * Phases of parsing and serialization.
+     */
+    enum Phase {
+        /**
+         * Parsing of a calendar as a whole, from the first octet read to the calendar being built.
+         */
+        PARSE,
+
+        /**
+         * Reading, unfolding and tokenizing content lines, measured as the time between the start and end of a
+         * calendar not spent in the other phases of parsing.
+         */
+        LEXING,
+
+        /**
+         * Construction of properties by property factories, including parsing of property values such as dates.
+         */
+        PROPERTY,
+
+        /**
+         * Construction of parameters by parameter factories.
+         */
+        PARAMETER,
+
+        /**
+         * Construction of components by component factories.
+         */
+        COMPONENT,
+
+        /**
+         * Registration of parsed VTIMEZONE definitions.
+         */
+        TIMEZONE_REGISTRATION,
+
+        /**
+         * Lookup of timezones referenced by TZID parameters and rebinding of date values to those timezones.
+         */
+        TIMEZONE_RESOLUTION,
+
+        /**
+         * Serialization of a calendar as a whole.
+         */
+        SERIALIZE
+    }
+
+    /**
+     * Reports the time spent in a single occurrence of a phase.
+     * @param phase the phase measured
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void phase(Phase phase, long nanos) {
+    }
+
+    /**
+     * Reports the number of octets read when parsing or written when serializing a calendar.
+     * @param phase either {@link Phase#PARSE} or {@link Phase#SERIALIZE}
+     * @param count the number of octets
+     */
+    default void bytes(Phase phase, long count) {
+    }
+
+    /**
+     * Reports the number of folded lines unfolded when parsing a calendar.
+     * @param count the number of lines unfolded
+     */
+    default void linesUnfolded(int count) {
+    }
+
+    /**
+     * Reports a parsed component.
+     * @param name the component name
+     */
+    default void component(String name) {
+    }
+
+    /**
+     * Reports a parsed property.
+     * @param name the property name
+     */
+    default void property(String name) {
+    }
+
+    /**
+     * Reports a failure in the specified phase.
+     * @param phase the phase in which the failure occurred
+     * @param cause the cause of the failure
+     */
+    default void failure(Phase phase, Exception cause) {
+    }
+}
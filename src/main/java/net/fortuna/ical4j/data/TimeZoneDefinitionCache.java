@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import net.fortuna.ical4j.model.TimeZone;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.Configurator;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of timezones keyed by a digest of the parsed content of their VTIMEZONE definitions, such that
+ * identical definitions embedded in many calendars (e.g. those of a single calendar application) share a single
+ * {@link TimeZone} instance, along with any observance onsets it has already calculated.
+ * <p/>
+ * The maximum number of definitions cached may be specified with the following configuration property (zero
+ * disables the cache):
+ * <pre>
+ * net.fortuna.ical4j.timezone.definitions.cache.size=256
+ * </pre>
+ */
+final class TimeZoneDefinitionCache {
+
+    private static final String KEY_CACHE_SIZE = "net.fortuna.ical4j.timezone.definitions.cache.size";
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    static final TimeZoneDefinitionCache INSTANCE = new TimeZoneDefinitionCache(
+            Configurator.getIntProperty(KEY_CACHE_SIZE).orElse(DEFAULT_CACHE_SIZE));
+
+    private final int maxSize;
+
+    /**
+     * Timezones in access order, guarded by the map itself.
+     */
+    private final Map<String, TimeZone> timezones;
+
+    TimeZoneDefinitionCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.timezones = new LinkedHashMap<String, TimeZone>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TimeZone> eldest) {
+                return size() > TimeZoneDefinitionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return true if definitions are cached
+     */
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns a timezone for the specified definition.
+     *
+     * @param content the canonical content of the definition
+     * @param vTimeZone the parsed definition
+     * @return a cached timezone with an identical definition, otherwise a new timezone
+     */
+    TimeZone getTimeZone(final CharSequence content, final VTimeZone vTimeZone) {
+        if (!isEnabled()) {
+            return new TimeZone(vTimeZone);
+        }
+        final String key = digest(content);
+        synchronized (timezones) {
+            final TimeZone timezone = timezones.get(key);
+            if (timezone != null) {
+                return timezone;
+            }
+        }
+        final TimeZone timezone;
+        try {
+            // the parsed definition belongs to the calendar, so cache an independent copy..
+            timezone = new TimeZone(vTimeZone.copy());
+        } catch (ParseException | IOException | URISyntaxException e) {
+            return new TimeZone(vTimeZone);
+        }
+        synchronized (timezones) {
+            final TimeZone existing = timezones.putIfAbsent(key, timezone);
+            return existing != null ? existing : timezone;
+        }
+    }
+
+    /**
+     * Clears all cached definitions.
+     */
+    void clear() {
+        synchronized (timezones) {
+            timezones.clear();
+        }
+    }
+
+    private static String digest(final CharSequence content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(
+                    content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // all Java platforms are required to support SHA-256..
+            throw new IllegalStateException(e);
+        }
+    }
+}
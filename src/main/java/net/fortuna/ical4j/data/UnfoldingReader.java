@@ -48,9 +48,6 @@ import java.util.Arrays;
  * A reader which performs iCalendar unfolding as it reads. Note that unfolding rules may be "relaxed" to allow
  * unfolding of non-conformant *.ics files. By specifying the system property "ical4j.unfolding.relaxed=true" iCalendar
  * files created with Mozilla Calendar/Sunbird may be correctly unfolded.
- * <p/>
- * To wrap this reader with a {@link java.io.BufferedReader} you must ensure you specify an identical buffer size
- * to that used in the {@link java.io.BufferedReader}.
  *
  * @author Ben Fortuna
  */
@@ -86,6 +83,13 @@ public class UnfoldingReader extends PushbackReader {
 
     private int maxPatternLength = 0;
 
+    /**
+     * Characters read beyond the end of a block to match a fold pattern.
+     */
+    private final char[] lookahead;
+
+    private int lookaheadCount;
+
     /**
      * Creates a new unfolding reader instance. Relaxed unfolding flag is read from system property.
      *
@@ -137,6 +141,7 @@ public class UnfoldingReader extends PushbackReader {
             buffers[i] = new char[patterns[i].length];
             maxPatternLength = Math.max(maxPatternLength, patterns[i].length);
         }
+        lookahead = new char[maxPatternLength];
     }
 
     /**
@@ -171,34 +176,97 @@ public class UnfoldingReader extends PushbackReader {
     }
 
     /**
+     * Reads a block of characters and removes any folds from it in place. A fold that spans the end of the block
+     * is completed by reading ahead, such that a full block is returned rather than a short read at each line
+     * terminator.
+     * <p/>
      * {@inheritDoc}
      */
     @Override
     public int read(final char[] cbuf, final int off, final int len) throws IOException {
-        final int read = super.read(cbuf, off, len);
-        boolean doUnfold = false;
-        for (char[] pattern : patterns) {
-            if (read > 0 && cbuf[0] == pattern[0]) {
-                doUnfold = true;
-                break;
-            } else {
-                for (int j = 0; j < read; j++) {
-                    if (cbuf[j] == pattern[0]) {
-                        unread(cbuf, j, read - j);
-                        return j;
+        int read;
+        do {
+            read = super.read(cbuf, off, len);
+            if (read <= 0) {
+                return read;
+            }
+            read = unfold(cbuf, off, off + read);
+        }
+        // a block consisting only of folds yields no characters..
+        while (read == 0);
+        return read;
+    }
+
+    /**
+     * Removes folds from the specified block of characters.
+     * @return the number of characters remaining in the block
+     */
+    private int unfold(final char[] cbuf, final int off, final int end) throws IOException {
+        int count = off;
+        int i = off;
+        while (i < end) {
+            final char c = cbuf[i];
+            // all fold patterns begin with a line terminator..
+            if (c == '\r' || c == '\n') {
+                final int folded = matchFold(cbuf, i, end);
+                if (folded > 0) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Unfolding...");
                     }
+                    linesUnfolded++;
+                    i += folded;
+                    continue;
                 }
             }
+            cbuf[count++] = c;
+            i++;
         }
-        if (!doUnfold) {
-            return read;
-        } else {
-            unread(cbuf, off, read);
+        return count - off;
+    }
+
+    /**
+     * @return the length of the fold pattern matching the characters at the specified index, or zero if there
+     * is no match. Any characters read beyond the end of the block that are not part of the fold are unread.
+     */
+    private int matchFold(final char[] cbuf, final int index, final int end) throws IOException {
+        lookaheadCount = 0;
+        int folded = 0;
+        for (char[] pattern : patterns) {
+            if (matches(pattern, cbuf, index, end)) {
+                folded = pattern.length;
+                break;
+            }
+        }
+        final int consumed = Math.max(0, index + folded - end);
+        if (lookaheadCount > consumed) {
+            unread(lookahead, consumed, lookaheadCount - consumed);
         }
+        return folded;
+    }
 
-        unfold();
+    private boolean matches(final char[] pattern, final char[] cbuf, final int index, final int end)
+            throws IOException {
 
-        return super.read(cbuf, off, maxPatternLength);
+        for (int i = 0; i < pattern.length; i++) {
+            final char c;
+            if (index + i < end) {
+                c = cbuf[index + i];
+            } else {
+                final int j = index + i - end;
+                if (j == lookaheadCount) {
+                    final int next = super.read();
+                    if (next < 0) {
+                        return false;
+                    }
+                    lookahead[lookaheadCount++] = (char) next;
+                }
+                c = lookahead[j];
+            }
+            if (c != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void unfold() throws IOException {
@@ -31,6 +31,7 @@
  */
 package net.fortuna.ical4j.model;
 
+import net.fortuna.ical4j.data.ByteSink;
 import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.*;
 import net.fortuna.ical4j.util.Strings;
@@ -190,6 +191,22 @@ public abstract class Component implements Serializable, PropertyContainer {
                 Strings.LINE_SEPARATOR;
     }
 
+    /**
+     * Writes this component, in the form returned by {@link #toString()}, to the specified byte sink.
+     * @param sink a byte sink
+     * @throws IOException where an error occurs writing to the sink
+     */
+    public void writeTo(final ByteSink sink) throws IOException {
+        sink.append(BEGIN).append(':').append(getName()).endLine();
+        for (final Property property : getProperties()) {
+            property.writeTo(sink);
+        }
+        for (final Component component : components) {
+            component.writeTo(sink);
+        }
+        sink.append(END).append(':').append(getName()).endLine();
+    }
+
     /**
      * @return Returns the name.
      */
@@ -9,6 +9,8 @@ public class ComponentBuilder<T extends Component> extends AbstractContentBuilde
 
     private final List<ComponentFactory<?>> factories;
 
+    private final ContentFactoryIndex<ComponentFactory<?>> factoryIndex;
+
     private String name;
 
     private PropertyList<Property> properties = new PropertyList<>();
@@ -21,6 +23,15 @@ public class ComponentBuilder<T extends Component> extends AbstractContentBuilde
 
     public ComponentBuilder(List<ComponentFactory<?>> factories) {
         this.factories = factories;
+        this.factoryIndex = null;
+    }
+
+    /**
+     * @param factoryIndex a precompiled index of component factories
+     */
+    public ComponentBuilder(ContentFactoryIndex<ComponentFactory<?>> factoryIndex) {
+        this.factories = factoryIndex.get();
+        this.factoryIndex = factoryIndex;
     }
 
     public ComponentBuilder<?> name(String name) {
@@ -42,13 +53,12 @@ public class ComponentBuilder<T extends Component> extends AbstractContentBuilde
     @SuppressWarnings("unchecked")
     public T build() {
         Component component = null;
-        for (ComponentFactory<?> factory : factories) {
-            if (factory.supports(name)) {
-                if (!subComponents.isEmpty()) {
-                    component = factory.createComponent(properties, subComponents);
-                } else {
-                    component = factory.createComponent(properties);
-                }
+        final ComponentFactory<?> factory = getFactory();
+        if (factory != null) {
+            if (!subComponents.isEmpty()) {
+                component = factory.createComponent(properties, subComponents);
+            } else {
+                component = factory.createComponent(properties);
             }
         }
 
@@ -63,4 +73,16 @@ public class ComponentBuilder<T extends Component> extends AbstractContentBuilde
         }
         return (T) component;
     }
+
+    private ComponentFactory<?> getFactory() {
+        if (factoryIndex != null) {
+            return factoryIndex.getFactory(name).orElse(null);
+        }
+        for (ComponentFactory<?> factory : factories) {
+            if (factory.supports(name)) {
+                return factory;
+            }
+        }
+        return null;
+    }
 }
@@ -33,6 +33,7 @@ package net.fortuna.ical4j.model;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -73,5 +74,12 @@ public abstract class Content implements Serializable {
         public final boolean supports(String name) {
             return supportedNames.contains(name);
         }
+
+        /**
+         * @return an unmodifiable list of the content names supported by this factory
+         */
+        public final List<String> getSupportedNames() {
+            return Collections.unmodifiableList(supportedNames);
+        }
     }
 }
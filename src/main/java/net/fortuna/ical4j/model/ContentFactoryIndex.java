@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe index of content factories keyed by (upper case) content name, intended to be compiled once
+ * and shared by all builders.
+ * <p/>
+ * Names supported by factories extending {@link Content.Factory} are indexed on construction. Any other name is
+ * resolved by querying each factory in order on first use, and the result retained (up to a limit) so that
+ * subsequent lookups are a single hash lookup. Where more than one factory supports a name the first factory
+ * in the list is used.
+ *
+ * @param <T> the factory type
+ */
+public final class ContentFactoryIndex<T> implements Supplier<List<T>> {
+
+    /**
+     * The maximum number of names resolved after construction that are retained, to avoid unbounded growth
+     * where arbitrary experimental names are encountered.
+     */
+    private static final int MAX_RESOLVED_NAMES = 1024;
+
+    private final List<T> factories;
+
+    private final BiPredicate<T, String> supports;
+
+    private final ConcurrentMap<String, Optional<T>> index;
+
+    /**
+     * @param factories a list of factories, in order of precedence
+     * @param supports a predicate that determines whether a factory supports a content name
+     */
+    public ContentFactoryIndex(List<? extends T> factories, BiPredicate<T, String> supports) {
+        this.factories = Collections.unmodifiableList(new ArrayList<>(factories));
+        this.supports = supports;
+        this.index = new ConcurrentHashMap<>();
+        for (T factory : this.factories) {
+            if (factory instanceof Content.Factory) {
+                for (String name : ((Content.Factory) factory).getSupportedNames()) {
+                    index.computeIfAbsent(name.toUpperCase(), this::resolve);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param factories a list of property factories
+     * @return a new index of the specified property factories
+     */
+    public static ContentFactoryIndex<PropertyFactory<?>> ofProperties(List<PropertyFactory<?>> factories) {
+        return new ContentFactoryIndex<>(factories, PropertyFactory::supports);
+    }
+
+    /**
+     * @param factories a list of parameter factories
+     * @return a new index of the specified parameter factories
+     */
+    public static ContentFactoryIndex<ParameterFactory<?>> ofParameters(List<ParameterFactory<?>> factories) {
+        return new ContentFactoryIndex<>(factories, ParameterFactory::supports);
+    }
+
+    /**
+     * @param factories a list of component factories
+     * @return a new index of the specified component factories
+     */
+    public static ContentFactoryIndex<ComponentFactory<?>> ofComponents(List<ComponentFactory<?>> factories) {
+        return new ContentFactoryIndex<>(factories, ComponentFactory::supports);
+    }
+
+    /**
+     * @param name a content name (case-insensitive)
+     * @return the factory that supports the specified name, or an empty optional if no factory supports it
+     */
+    public Optional<T> getFactory(String name) {
+        final String key = name.toUpperCase();
+        Optional<T> factory = index.get(key);
+        if (factory == null) {
+            factory = resolve(key);
+            if (index.size() < MAX_RESOLVED_NAMES) {
+                index.putIfAbsent(key, factory);
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * @return an unmodifiable list of the indexed factories
+     */
+    @Override
+    public List<T> get() {
+        return factories;
+    }
+
+    private Optional<T> resolve(String name) {
+        for (T factory : factories) {
+            if (supports.test(factory, name)) {
+                return Optional.of(factory);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -31,11 +31,13 @@
  */
 package net.fortuna.ical4j.model;
 
+import net.fortuna.ical4j.data.ByteSink;
 import net.fortuna.ical4j.util.Strings;
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.Comparator;
 
@@ -275,6 +277,24 @@ public abstract class Parameter extends Content implements Comparable<Parameter>
         return b.toString();
     }
 
+    /**
+     * Writes this parameter, in the form returned by {@link #toString()}, to the specified byte sink.
+     * @param sink a byte sink
+     * @throws IOException where an error occurs writing to the sink
+     */
+    public final void writeTo(final ByteSink sink) throws IOException {
+        sink.append(getName());
+        sink.append('=');
+        final String value = getValue();
+        if (value != null) {
+            if (this instanceof Encodable) {
+                sink.appendParameterValue(value);
+            } else {
+                sink.append(value);
+            }
+        }
+    }
+
     /**
      * @return Returns the name.
      */
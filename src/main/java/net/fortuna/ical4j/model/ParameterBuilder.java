@@ -4,6 +4,7 @@ import net.fortuna.ical4j.model.parameter.XParameter;
 import org.apache.commons.codec.DecoderException;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -12,7 +13,9 @@ import java.util.List;
  */
 public class ParameterBuilder extends AbstractContentBuilder {
 
-    private final List<ParameterFactory<? extends Parameter>> factories;
+    private List<ParameterFactory<? extends Parameter>> factories;
+
+    private ContentFactoryIndex<ParameterFactory<?>> factoryIndex;
 
     private String name;
 
@@ -26,7 +29,20 @@ public class ParameterBuilder extends AbstractContentBuilder {
         this.factories = factories;
     }
 
+    /**
+     * @param factoryIndex a precompiled index of parameter factories
+     */
+    public ParameterBuilder(ContentFactoryIndex<ParameterFactory<?>> factoryIndex) {
+        this.factories = factoryIndex.get();
+        this.factoryIndex = factoryIndex;
+    }
+
     public ParameterBuilder factories(List<ParameterFactory<? extends Parameter>> factories) {
+        if (factoryIndex != null) {
+            // additional factories are not indexed, so revert to a modifiable list..
+            this.factories = new ArrayList<>(factoryIndex.get());
+            this.factoryIndex = null;
+        }
         this.factories.addAll(factories);
         return this;
     }
@@ -53,11 +69,9 @@ public class ParameterBuilder extends AbstractContentBuilder {
         } catch (DecoderException e) {
             decodedValue = value;
         }
-        for (ParameterFactory<? extends Parameter> factory : factories) {
-            if (factory.supports(name)) {
-                parameter = factory.createParameter(decodedValue);
-                break;
-            }
+        final ParameterFactory<? extends Parameter> factory = getFactory();
+        if (factory != null) {
+            parameter = factory.createParameter(decodedValue);
         }
 
         if (parameter == null) {
@@ -73,4 +87,16 @@ public class ParameterBuilder extends AbstractContentBuilder {
         }
         return parameter;
     }
+
+    private ParameterFactory<? extends Parameter> getFactory() {
+        if (factoryIndex != null) {
+            return factoryIndex.getFactory(name).orElse(null);
+        }
+        for (ParameterFactory<? extends Parameter> factory : factories) {
+            if (factory.supports(name)) {
+                return factory;
+            }
+        }
+        return null;
+    }
 }
@@ -31,8 +31,10 @@
  */
 package net.fortuna.ical4j.model;
 
+import net.fortuna.ical4j.data.ByteSink;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.util.Collections;
@@ -112,6 +114,18 @@ public class ParameterList implements Serializable, Iterable<Parameter>, Compara
         return "";
     }
 
+    /**
+     * Writes the parameters, in the form returned by {@link #toString()}, to the specified byte sink.
+     * @param sink a byte sink
+     * @throws IOException where an error occurs writing to the sink
+     */
+    public final void writeTo(final ByteSink sink) throws IOException {
+        for (final Parameter p : parameters) {
+            sink.append(';');
+            p.writeTo(sink);
+        }
+    }
+
     /**
      * Returns the first parameter with the specified name.
      * @param aName name of the parameter
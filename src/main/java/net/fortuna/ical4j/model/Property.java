@@ -31,7 +31,10 @@
  */
 package net.fortuna.ical4j.model;
 
+import net.fortuna.ical4j.data.ByteSink;
+import net.fortuna.ical4j.data.FoldingWriter;
 import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.model.property.ImmutableProperty;
 import net.fortuna.ical4j.model.property.XProperty;
 import net.fortuna.ical4j.util.Strings;
 import net.fortuna.ical4j.validate.ValidationException;
@@ -39,10 +42,14 @@ import org.apache.commons.codec.EncoderException;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -543,6 +550,16 @@ public abstract class Property extends Content implements Comparable<Property> {
 
     private final PropertyFactory factory;
 
+    /**
+     * The encoded content line of an immutable property, retained to avoid re-encoding constant properties.
+     */
+    private transient volatile byte[] encoded;
+
+    /**
+     * The unfolded content line from which this property was parsed, where preserved.
+     */
+    private transient Source source;
+
     /**
      * Constructor.
      *
@@ -596,6 +613,11 @@ public abstract class Property extends Content implements Comparable<Property> {
      */
     @Override
     public final String toString() {
+        final String line = getSource();
+        if (line != null) {
+            return line + Strings.LINE_SEPARATOR;
+        }
+
         final StringBuilder buffer = new StringBuilder();
         buffer.append(getName());
         if (getParameters() != null) {
@@ -622,6 +644,87 @@ public abstract class Property extends Content implements Comparable<Property> {
         return buffer.toString();
     }
 
+    /**
+     * Writes the content line for this property, in the form returned by {@link #toString()}, to the specified
+     * byte sink. The encoded content line of an {@link ImmutableProperty} is retained and copied to the sink
+     * verbatim where no folding is required.
+     * @param sink a byte sink
+     * @throws IOException where an error occurs writing to the sink
+     */
+    public final void writeTo(final ByteSink sink) throws IOException {
+        final String source = getSource();
+        if (source != null) {
+            sink.append(source).endLine();
+            return;
+        }
+        if (this instanceof ImmutableProperty) {
+            byte[] line = encoded;
+            if (line == null) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (ByteSink lineSink = new ByteSink(out, FoldingWriter.MAX_FOLD_LENGTH)) {
+                    write(lineSink);
+                }
+                line = out.toByteArray();
+                encoded = line;
+            }
+            if (sink.appendLine(line)) {
+                return;
+            }
+        }
+        write(sink);
+    }
+
+    /**
+     * Retains the unfolded content line from which this property was parsed. While the value and parameters of the
+     * property remain unmodified, the property is serialized as per the content line rather than re-encoded, such
+     * that unmodified content is reproduced as parsed. A deferred value is not parsed in retaining the content line.
+     * @param contentLine an unfolded content line excluding the line separator, or null to discard a retained line
+     */
+    public final void setSource(final String contentLine) {
+        if (contentLine != null) {
+            source = new Source(contentLine, isValueDeferred() ? null : getValue(), isValueDeferred(), parameters);
+        } else {
+            source = null;
+        }
+    }
+
+    /**
+     * @return the unfolded content line from which this property was parsed, or null if the content line was not
+     * retained or the property has been modified since parsing
+     * @see #setSource(String)
+     */
+    public final String getSource() {
+        final Source retained = source;
+        if (retained == null) {
+            return null;
+        } else if (!retained.matches(this)) {
+            source = null;
+            return null;
+        }
+        return retained.contentLine;
+    }
+
+    private void write(final ByteSink sink) throws IOException {
+        sink.append(getName());
+        if (getParameters() != null) {
+            getParameters().writeTo(sink);
+        }
+        sink.append(':');
+        final String value = getValue();
+
+        if (value != null) {
+            if (this instanceof XProperty && getParameter(Parameter.VALUE) != null
+                    && !Value.TEXT.equals(getParameter(Parameter.VALUE))) {
+                sink.append(value);
+            } else if (this instanceof Encodable) {
+                sink.appendText(value);
+            } else {
+                sink.append(value);
+            }
+        }
+        sink.endLine();
+    }
+
     /**
      * @return Returns the name.
      */
@@ -667,6 +770,27 @@ public abstract class Property extends Content implements Comparable<Property> {
      */
     public abstract void setValue(String aValue) throws IOException, URISyntaxException, ParseException;
 
+    /**
+     * Sets the current value of the property without parsing, where supported by the property type. The value is
+     * then parsed when first accessed, and an invalid value is reported at that point as a
+     * {@link CalendarException}.
+     *
+     * @param aValue a string representation of the property value
+     * @return true if the value has been set, or false if this property does not support deferred parsing, in
+     * which case the value is unchanged
+     */
+    public boolean deferValue(final String aValue) {
+        return false;
+    }
+
+    /**
+     * @return true if the value of this property has been deferred and not yet parsed
+     * @see #deferValue(String)
+     */
+    public boolean isValueDeferred() {
+        return false;
+    }
+
     /**
      * Perform validation on a property.
      *
@@ -724,4 +848,73 @@ public abstract class Property extends Content implements Comparable<Property> {
                          .thenComparing((Function<Property, ParameterList>) Property::getParameters)
                          .compare(this, o);
     }
+
+    /**
+     * A retained content line, with the value and parameters of the property when parsed.
+     */
+    private static final class Source {
+
+        private final String contentLine;
+
+        private final String value;
+
+        /**
+         * Indicates the value was deferred when parsed, in which case it is compared with the value of the content
+         * line once parsed.
+         */
+        private final boolean deferred;
+
+        private final Parameter[] parameters;
+
+        private Source(final String contentLine, final String value, final boolean deferred,
+                       final ParameterList parameters) {
+            this.contentLine = contentLine;
+            this.value = value;
+            this.deferred = deferred;
+            final List<Parameter> parameterList = new ArrayList<>();
+            if (parameters != null) {
+                parameters.forEach(parameterList::add);
+            }
+            this.parameters = parameterList.toArray(new Parameter[0]);
+        }
+
+        /**
+         * @return true if the value of the specified property is still deferred or equal to the value when parsed,
+         * and the parameters are the same instances as when parsed
+         */
+        private boolean matches(final Property property) {
+            final ParameterList parameters = property.parameters;
+            if (!property.isValueDeferred()
+                    && !Objects.equals(deferred ? getContentLineValue() : value, property.getValue())) {
+                return false;
+            } else if (parameters == null) {
+                return this.parameters.length == 0;
+            } else if (parameters.size() != this.parameters.length) {
+                return false;
+            }
+            int i = 0;
+            for (Parameter parameter : parameters) {
+                if (i == this.parameters.length || parameter != this.parameters[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the value of the content line, following the first delimiter outside of a quoted parameter value
+         */
+        private String getContentLineValue() {
+            boolean quoted = false;
+            for (int i = 0; i < contentLine.length(); i++) {
+                final char c = contentLine.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    return contentLine.substring(i + 1);
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -18,18 +18,31 @@ public class PropertyBuilder extends AbstractContentBuilder {
 
     private final List<PropertyFactory<?>> factories;
 
+    private final ContentFactoryIndex<PropertyFactory<?>> factoryIndex;
+
     private String name;
 
     private String value;
 
     private ParameterList parameters = new ParameterList();
 
+    private boolean deferValue;
+
     public PropertyBuilder() {
         this(Collections.emptyList());
     }
 
     public PropertyBuilder(List<PropertyFactory<? extends Property>> factories) {
         this.factories = factories;
+        this.factoryIndex = null;
+    }
+
+    /**
+     * @param factoryIndex a precompiled index of property factories
+     */
+    public PropertyBuilder(ContentFactoryIndex<PropertyFactory<?>> factoryIndex) {
+        this.factories = factoryIndex.get();
+        this.factoryIndex = factoryIndex;
     }
 
     public PropertyBuilder name(String name) {
@@ -49,17 +62,28 @@ public class PropertyBuilder extends AbstractContentBuilder {
         return this;
     }
 
+    /**
+     * Defers parsing of the property value until first accessed, for property types that support it. This avoids
+     * the cost of parsing values that are never used, however invalid values are not reported by {@link #build()}.
+     *
+     * @param deferValue true to defer parsing of the property value where possible
+     * @return this builder
+     * @see Property#deferValue(String)
+     */
+    public PropertyBuilder deferValue(boolean deferValue) {
+        this.deferValue = deferValue;
+        return this;
+    }
+
     public Property build() throws ParseException, IOException, URISyntaxException {
         Property property = null;
-        String decodedValue;
-        try {
-            decodedValue = PropertyCodec.INSTANCE.decode(value);
-        } catch (DecoderException e) {
-            decodedValue = value;
-        }
 
-        for (PropertyFactory<?> factory : factories) {
-            if (factory.supports(name)) {
+        final PropertyFactory<?> factory = getFactory();
+        if (factory != null) {
+            if (deferValue) {
+                property = createDeferred(factory);
+            }
+            if (property == null) {
                 property = factory.createProperty(parameters, value);
             }
         }
@@ -75,9 +99,38 @@ public class PropertyBuilder extends AbstractContentBuilder {
         }
 
         if (property instanceof Encodable) {
+            String decodedValue;
+            try {
+                decodedValue = PropertyCodec.INSTANCE.decode(value);
+            } catch (DecoderException e) {
+                decodedValue = value;
+            }
             property.setValue(decodedValue);
         }
 
         return property;
     }
+
+    private Property createDeferred(PropertyFactory<?> factory) {
+        final Property property = factory.createProperty();
+        for (Parameter parameter : parameters) {
+            property.getParameters().add(parameter);
+        }
+        if (!property.deferValue(value)) {
+            return null;
+        }
+        return property;
+    }
+
+    private PropertyFactory<?> getFactory() {
+        if (factoryIndex != null) {
+            return factoryIndex.getFactory(name).orElse(null);
+        }
+        for (PropertyFactory<?> factory : factories) {
+            if (factory.supports(name)) {
+                return factory;
+            }
+        }
+        return null;
+    }
 }
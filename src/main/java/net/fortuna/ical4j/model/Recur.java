@@ -45,6 +45,8 @@ import java.io.Serializable;
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * $Id$ [18-Apr-2004]
@@ -666,19 +668,42 @@ public class Recur implements Serializable {
      * default values to return a set of dates in the correct format. For example, if the search start date (start) is
      * Wed, Mar 23, 12:19PM, but the recurrence is Mon - Fri, 9:00AM - 5:00PM, the start dates returned should all be at
      * 9:00AM, and not 12:19PM.
+     * <p>Where the {@link RecurrenceCache#getInstance() default recurrence cache} is enabled, dates for an unlimited
+     * number of instances may be provided by the cache.</p>
      *
      * @param seed        the start date of this Recurrence's first instance
      * @param periodStart the start of the period
      * @param periodEnd   the end of the period
      * @param value       the type of dates to generate (i.e. date/date-time)
-     * @param maxCount    limits the number of instances returned. Up to one years
-     *                    worth extra may be returned. Less than 0 means no limit
+     * @param maxCount    limits the number of instances returned. Less than 0 means no limit
      * @return a list of dates represented by this recur instance
      */
     public final DateList getDates(final Date seed, final Date periodStart,
                                    final Date periodEnd, final Value value,
                                    final int maxCount) {
 
+        final RecurrenceCache cache = RecurrenceCache.getInstance();
+        if (maxCount < 0 && periodStart != null && periodEnd != null && cache.isEnabled()) {
+            return cache.getDates(this, seed, periodStart, periodEnd, value);
+        }
+        return expand(seed, periodStart, periodEnd, value, maxCount);
+    }
+
+    /**
+     * Returns a list of start dates in the specified period represented by this recur, without reference to any
+     * cached expansions.
+     *
+     * @param seed        the start date of this Recurrence's first instance
+     * @param periodStart the start of the period
+     * @param periodEnd   the end of the period
+     * @param value       the type of dates to generate (i.e. date/date-time)
+     * @param maxCount    limits the number of instances returned. Less than 0 means no limit
+     * @return a list of dates represented by this recur instance
+     * @see RecurrenceCache
+     */
+    final DateList expand(final Date seed, final Date periodStart, final Date periodEnd, final Value value,
+                          final int maxCount) {
+
         final DateList dates = new DateList(value);
         if (seed instanceof DateTime) {
             if (((DateTime) seed).isUtc()) {
@@ -687,81 +712,14 @@ public class Recur implements Serializable {
                 dates.setTimeZone(((DateTime) seed).getTimeZone());
             }
         }
-        final Calendar cal = getCalendarInstance(seed, true);
-        final Calendar rootSeed = (Calendar)cal.clone();
-        
-        // optimize the start time for selecting candidates
-        // (only applicable where a COUNT is not specified)
-        if (count == null) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(periodStart)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
-            }
-        }
-
-        HashSet<Date> invalidCandidates = new HashSet<Date>();
-        int noCandidateIncrementCount = 0;
-        Date candidate = null;
-        while ((maxCount < 0) || (dates.size() < maxCount)) {
-            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
-
-            if (getUntil() != null && candidate != null
-                    && candidate.after(getUntil())) {
-                break;
-            }
-            if (periodEnd != null && candidate != null
-                    && candidate.after(periodEnd)) {
-                break;
-            }
-            if (getCount() >= 1
-                    && (dates.size() + invalidCandidates.size()) >= getCount()) {
+        final Iterator<Date> candidates = iterator(seed, periodStart, value);
+        while (((maxCount < 0) || (dates.size() < maxCount)) && candidates.hasNext()) {
+            final Date candidate = candidates.next();
+            // candidates exclusive of periodEnd..
+            if (periodEnd != null && candidate.after(periodEnd)) {
                 break;
             }
-
-//            if (Value.DATE_TIME.equals(value)) {
-            if (candidateSeed instanceof DateTime) {
-                if (dates.isUtc()) {
-                    ((DateTime) candidateSeed).setUtc(true);
-                } else {
-                    ((DateTime) candidateSeed).setTimeZone(dates.getTimeZone());
-                }
-            }
-
-            // rootSeed = date used for the seed for the RRule at the
-            //            start of the first period.
-            // candidateSeed = date used for the start of 
-            //                 the current period.
-            final DateList candidates = getCandidates(rootSeed, candidateSeed, value);
-            if (!candidates.isEmpty()) {
-                noCandidateIncrementCount = 0;
-                // sort candidates for identifying when UNTIL date is exceeded..
-                Collections.sort(candidates);
-                for (Date candidate1 : candidates) {
-                    candidate = candidate1;
-                    // don't count candidates that occur before the seed date..
-                    if (!candidate.before(seed)) {
-                        // candidates exclusive of periodEnd..
-                        if (candidate.before(periodStart)
-                                || candidate.after(periodEnd)) {
-                            invalidCandidates.add(candidate);
-                        } else if (getCount() >= 1
-                                && (dates.size() + invalidCandidates.size()) >= getCount()) {
-                            break;
-                        } else if (!candidate.before(periodStart) && !candidate.after(periodEnd)
-                            && (getUntil() == null || !candidate.after(getUntil()))) {
-
-                            dates.add(candidate);
-                        }
-                    }
-                }
-            } else {
-                noCandidateIncrementCount++;
-                if ((maxIncrementCount > 0) && (noCandidateIncrementCount > maxIncrementCount)) {
-                    break;
-                }
-            }
-            increment(cal);
+            dates.add(candidate);
         }
         // sort final list..
         Collections.sort(dates);
@@ -780,76 +738,75 @@ public class Recur implements Serializable {
      * @return the next date in the recurrence series after startDate
      */
     public final Date getNextDate(final Date seed, final Date startDate) {
-
-        final Calendar cal = getCalendarInstance(seed, true);
-        final Calendar rootSeed = (Calendar)cal.clone();
-
-        // optimize the start time for selecting candidates
-        // (only applicable where a COUNT is not specified)
-        if (count == null) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(startDate)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
+        final Iterator<Date> candidates = iterator(seed, startDate);
+        while (candidates.hasNext()) {
+            final Date candidate = candidates.next();
+            // Candidate must be after startDate because
+            // we want the NEXT occurrence
+            if (candidate.after(startDate)) {
+                return candidate;
             }
         }
+        return null;
+    }
 
-        int invalidCandidateCount = 0;
-        int noCandidateIncrementCount = 0;
-        Date candidate = null;
-        final Value value = seed instanceof DateTime ? Value.DATE_TIME : Value.DATE;
-
-        while (true) {
-            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
-
-            if (getUntil() != null && candidate != null && candidate.after(getUntil())) {
-                break;
-            }
-
-            if (getCount() > 0 && invalidCandidateCount >= getCount()) {
-                break;
-            }
+    /**
+     * Returns an iterator over the dates represented by this recur, in ascending order and starting from the specified
+     * date. Dates are generated lazily one period (FREQ &times; INTERVAL) at a time, such that no more periods are
+     * expanded than are required by the consumer. The iterator ends when the COUNT or UNTIL rule parts are exhausted,
+     * and so may be unbounded where neither is specified.
+     *
+     * @param seed the start date of this Recurrence's first instance
+     * @param from the earliest date to return
+     * @return an iterator over dates represented by this recur instance
+     */
+    public final Iterator<Date> iterator(final Date seed, final Date from) {
+        return iterator(seed, from, seed instanceof DateTime ? Value.DATE_TIME : Value.DATE);
+    }
 
-            if (Value.DATE_TIME.equals(value)) {
-                if (((DateTime) seed).isUtc()) {
-                    ((DateTime) candidateSeed).setUtc(true);
-                } else {
-                    ((DateTime) candidateSeed).setTimeZone(((DateTime) seed).getTimeZone());
-                }
-            }
+    /**
+     * Returns an iterator over the dates represented by this recur, in ascending order and starting from the specified
+     * date. Dates are generated lazily one period (FREQ &times; INTERVAL) at a time, such that no more periods are
+     * expanded than are required by the consumer. The iterator ends when the COUNT or UNTIL rule parts are exhausted,
+     * and so may be unbounded where neither is specified.
+     *
+     * @param seed  the start date of this Recurrence's first instance
+     * @param from  the earliest date to return
+     * @param value the type of dates to generate (i.e. date/date-time)
+     * @return an iterator over dates represented by this recur instance
+     */
+    public final Iterator<Date> iterator(final Date seed, final Date from, final Value value) {
+        return new DateIterator(seed, from, value);
+    }
 
-            final DateList candidates = getCandidates(rootSeed, candidateSeed, value);
-            if (!candidates.isEmpty()) {
-                noCandidateIncrementCount = 0;
-                // sort candidates for identifying when UNTIL date is exceeded..
-                Collections.sort(candidates);
+    /**
+     * Returns an ordered, lazily evaluated stream of the dates represented by this recur starting from the specified
+     * date. The stream may be infinite where neither COUNT nor UNTIL is specified, and so should be limited by the
+     * consumer (e.g. via {@link Stream#limit(long)}).
+     *
+     * @param seed the start date of this Recurrence's first instance
+     * @param from the earliest date to return
+     * @return a stream of dates represented by this recur instance
+     * @see #iterator(Date, Date)
+     */
+    public final Stream<Date> stream(final Date seed, final Date from) {
+        return stream(seed, from, seed instanceof DateTime ? Value.DATE_TIME : Value.DATE);
+    }
 
-                for (Date candidate1 : candidates) {
-                    candidate = candidate1;
-                    // don't count candidates that occur before the seed date..
-                    if (!candidate.before(seed)) {
-                        // Candidate must be after startDate because
-                        // we want the NEXT occurrence
-                        if (!candidate.after(startDate)) {
-                            invalidCandidateCount++;
-                        } else if (getCount() > 0
-                                && invalidCandidateCount >= getCount()) {
-                            break;
-                        } else if (!(getUntil() != null
-                                && candidate.after(getUntil()))) {
-                            return candidate;
-                        }
-                    }
-                }
-            } else {
-                noCandidateIncrementCount++;
-                if ((maxIncrementCount > 0) && (noCandidateIncrementCount > maxIncrementCount)) {
-                    break;
-                }
-            }
-            increment(cal);
-        }
-        return null;
+    /**
+     * Returns an ordered, lazily evaluated stream of the dates represented by this recur starting from the specified
+     * date. The stream may be infinite where neither COUNT nor UNTIL is specified, and so should be limited by the
+     * consumer (e.g. via {@link Stream#limit(long)}).
+     *
+     * @param seed  the start date of this Recurrence's first instance
+     * @param from  the earliest date to return
+     * @param value the type of dates to generate (i.e. date/date-time)
+     * @return a stream of dates represented by this recur instance
+     * @see #iterator(Date, Date, Value)
+     */
+    public final Stream<Date> stream(final Date seed, final Date from, final Value value) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(seed, from, value),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
     /**
@@ -863,14 +820,122 @@ public class Recur implements Serializable {
         cal.add(calIncField, calInterval);
     }
 
+    /**
+     * Moves the specified calendar forward to the start of the last period (FREQ &times; INTERVAL) beginning before
+     * the specified date. Where a COUNT is specified the skipped periods must be accounted for, and so the calendar is
+     * only moved when each period is known to produce exactly one instance (i.e. no BY* rules apply).
+     *
+     * @param cal      the calendar to move, initialised to the root seed
+     * @param rootSeed the start of the first period
+     * @param date     the start of the search
+     * @return the number of instances contained in the skipped periods
+     */
+    private int fastForward(final Calendar cal, final Calendar rootSeed, final Date date) {
+        if (getCount() < 1) {
+            setPeriod(cal, rootSeed, getPeriodsBefore(rootSeed, date));
+        } else if (transformers.isEmpty() && (!(frequency == Frequency.MONTHLY || frequency == Frequency.YEARLY)
+                || rootSeed.get(Calendar.DAY_OF_MONTH) <= 28)) {
+
+            final long periods = Math.min(getPeriodsBefore(rootSeed, date), getCount());
+            setPeriod(cal, rootSeed, periods);
+            return (int) periods;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the index of the last period (FREQ &times; INTERVAL) beginning before the specified date. The index is
+     * estimated arithmetically in the time zone of the root seed, and then corrected for any variation in the length
+     * of periods (e.g. months or daylight savings transitions).
+     *
+     * @param rootSeed the start of the first period
+     * @param date     the start of the search
+     * @return the index of the period, or zero if the first period does not begin before the date
+     */
+    private long getPeriodsBefore(final Calendar rootSeed, final Date date) {
+        final long rootTime = rootSeed.getTimeInMillis();
+        if (date == null || date.getTime() <= rootTime) {
+            return 0;
+        }
+        final long calInterval = (getInterval() >= 1) ? getInterval() : 1;
+        final long periods;
+        switch (calIncField) {
+            case Calendar.SECOND:
+                periods = (date.getTime() - rootTime - 1) / (calInterval * 1000);
+                break;
+            case Calendar.MINUTE:
+                periods = (date.getTime() - rootTime - 1) / (calInterval * 60000);
+                break;
+            case Calendar.HOUR_OF_DAY:
+                periods = (date.getTime() - rootTime - 1) / (calInterval * 3600000);
+                break;
+            case Calendar.DAY_OF_YEAR:
+            case Calendar.WEEK_OF_YEAR:
+                final java.util.TimeZone zone = rootSeed.getTimeZone();
+                final long days = Math.floorDiv(date.getTime() + zone.getOffset(date.getTime()), 86400000L)
+                        - Math.floorDiv(rootTime + zone.getOffset(rootTime), 86400000L);
+                periods = days / (calIncField == Calendar.WEEK_OF_YEAR ? calInterval * 7 : calInterval);
+                break;
+            default:
+                final Calendar dateCal = (Calendar) rootSeed.clone();
+                dateCal.setTime(date);
+                long months = dateCal.get(Calendar.YEAR) - rootSeed.get(Calendar.YEAR);
+                if (calIncField == Calendar.MONTH) {
+                    months = months * 12 + dateCal.get(Calendar.MONTH) - rootSeed.get(Calendar.MONTH);
+                }
+                periods = Math.max(months / calInterval, 0);
+                break;
+        }
+
+        // correct the estimate..
+        long index = periods;
+        final Calendar period = (Calendar) rootSeed.clone();
+        setPeriod(period, rootSeed, index);
+        while (index > 0 && !period.getTime().before(date)) {
+            setPeriod(period, rootSeed, --index);
+        }
+        setPeriod(period, rootSeed, index + 1);
+        while (period.getTime().before(date)) {
+            setPeriod(period, rootSeed, ++index + 1);
+        }
+        return index;
+    }
+
+    /**
+     * Sets the specified calendar to the start of the period with the specified index, relative to the root seed.
+     *
+     * @param cal      the calendar to set
+     * @param rootSeed the start of the first period
+     * @param index    the index of the period
+     */
+    private void setPeriod(final Calendar cal, final Calendar rootSeed, final long index) {
+        final long calInterval = (getInterval() >= 1) ? getInterval() : 1;
+        switch (calIncField) {
+            case Calendar.SECOND:
+                cal.setTimeInMillis(rootSeed.getTimeInMillis() + index * calInterval * 1000);
+                break;
+            case Calendar.MINUTE:
+                cal.setTimeInMillis(rootSeed.getTimeInMillis() + index * calInterval * 60000);
+                break;
+            case Calendar.HOUR_OF_DAY:
+                cal.setTimeInMillis(rootSeed.getTimeInMillis() + index * calInterval * 3600000);
+                break;
+            default:
+                cal.setTimeInMillis(rootSeed.getTimeInMillis());
+                cal.add(calIncField, Math.toIntExact(index * calInterval));
+                break;
+        }
+    }
+
     /**
      * Returns a list of possible dates generated from the applicable BY* rules, using the specified date as a seed.
      *
+     * @param plan  the BY* rules to apply
      * @param date  the seed date
      * @param value the type of date list to return
      * @return a DateList
      */
-    private DateList getCandidates(final Calendar rootSeed, final Date date, final Value value) {
+    private DateList getCandidates(final ExpansionPlan plan, final Date date, final Value value) {
         DateList dates = new DateList(value);
         if (date instanceof DateTime) {
             if (((DateTime) date).isUtc()) {
@@ -880,91 +945,68 @@ public class Recur implements Serializable {
             }
         }
         dates.add(date);
-        if (transformers.get(BYMONTH) != null) {
-            dates = transformers.get(BYMONTH).transform(dates);
+        for (int i = 0; i < plan.stages.size() && !dates.isEmpty(); i++) {
+            dates = plan.stages.get(i).transform(dates);
             // debugging..
             if (log.isDebugEnabled()) {
-                log.debug("Dates after BYMONTH processing: " + dates);
-            }
-        }
-
-        if (transformers.get(BYWEEKNO) != null) {
-            dates = transformers.get(BYWEEKNO).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYWEEKNO processing: " + dates);
-            }
-        }
-
-        if (transformers.get(BYYEARDAY) != null) {
-            dates = transformers.get(BYYEARDAY).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYYEARDAY processing: " + dates);
+                log.debug("Dates after " + plan.names.get(i) + " processing: " + dates);
             }
         }
+        return dates;
+    }
 
-        if (transformers.get(BYMONTHDAY) != null) {
-            dates = transformers.get(BYMONTHDAY).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYMONTHDAY processing: " + dates);
+    /**
+     * Compiles the BY* rules applicable to expansion from the specified seed, in the order they are applied. This
+     * includes implicit rules derived from the seed, such as the day of month for MONTHLY rules without BYMONTHDAY or
+     * BYDAY rule parts.
+     *
+     * @param rootSeed the start of the first period
+     * @return an expansion plan
+     */
+    private ExpansionPlan getExpansionPlan(final Calendar rootSeed) {
+        final List<String> names = new ArrayList<>();
+        final List<Transformer<DateList>> stages = new ArrayList<>();
+        for (String rulePart : new String[] {BYMONTH, BYWEEKNO, BYYEARDAY, BYMONTHDAY, BYDAY, BYHOUR, BYMINUTE,
+                BYSECOND, BYSETPOS}) {
+
+            Transformer<DateList> transformer = transformers.get(rulePart);
+            if (transformer == null && BYMONTHDAY.equals(rulePart)
+                    && ((frequency == Frequency.MONTHLY && dayList.isEmpty())
+                    || (frequency == Frequency.YEARLY && yearDayList.isEmpty() && weekNoList.isEmpty()
+                    && dayList.isEmpty()))) {
+
+                NumberList implicitMonthDayList = new NumberList();
+                implicitMonthDayList.add(rootSeed.get(Calendar.DAY_OF_MONTH));
+                transformer = new ByMonthDayRule(implicitMonthDayList, frequency, Optional.ofNullable(weekStartDay));
+            } else if (transformer == null && BYDAY.equals(rulePart)
+                    && (frequency == Frequency.WEEKLY || (frequency == Frequency.YEARLY && yearDayList.isEmpty()
+                    && !weekNoList.isEmpty() && monthDayList.isEmpty()))) {
+
+                transformer = new ByDayRule(new WeekDayList(WeekDay.getWeekDay(rootSeed)),
+                        deriveFilterType(), Optional.ofNullable(weekStartDay));
             }
-        } else if ((frequency == Frequency.MONTHLY && dayList.isEmpty()) ||
-                (frequency == Frequency.YEARLY && yearDayList.isEmpty() && weekNoList.isEmpty() && dayList.isEmpty())) {
-
-            NumberList implicitMonthDayList = new NumberList();
-            implicitMonthDayList.add(rootSeed.get(Calendar.DAY_OF_MONTH));
-            ByMonthDayRule implicitRule = new ByMonthDayRule(implicitMonthDayList, frequency, Optional.ofNullable(weekStartDay));
-            dates = implicitRule.transform(dates);
-        }
-
-        if (transformers.get(BYDAY) != null) {
-            dates = transformers.get(BYDAY).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYDAY processing: " + dates);
+            if (transformer != null) {
+                names.add(BYSETPOS.equals(rulePart) ? "SETPOS" : rulePart);
+                stages.add(transformer);
             }
-        } else if (frequency == Frequency.WEEKLY || (frequency == Frequency.YEARLY && yearDayList.isEmpty()
-                && !weekNoList.isEmpty() && monthDayList.isEmpty())) {
-
-            ByDayRule implicitRule = new ByDayRule(new WeekDayList(WeekDay.getWeekDay(rootSeed)),
-                    deriveFilterType(),  Optional.ofNullable(weekStartDay));
-            dates = implicitRule.transform(dates);
         }
+        return new ExpansionPlan(names, stages);
+    }
 
-        if (transformers.get(BYHOUR) != null) {
-            dates = transformers.get(BYHOUR).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYHOUR processing: " + dates);
-            }
-        }
+    /**
+     * The BY* rules applied to each period of a recurrence, compiled once per expansion such that rule parts are not
+     * resolved for every period.
+     */
+    private static final class ExpansionPlan {
 
-        if (transformers.get(BYMINUTE) != null) {
-            dates = transformers.get(BYMINUTE).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYMINUTE processing: " + dates);
-            }
-        }
+        private final List<String> names;
 
-        if (transformers.get(BYSECOND) != null) {
-            dates = transformers.get(BYSECOND).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after BYSECOND processing: " + dates);
-            }
-        }
+        private final List<Transformer<DateList>> stages;
 
-        if (transformers.get(BYSETPOS) != null) {
-            dates = transformers.get(BYSETPOS).transform(dates);
-            // debugging..
-            if (log.isDebugEnabled()) {
-                log.debug("Dates after SETPOS processing: " + dates);
-            }
+        ExpansionPlan(final List<String> names, final List<Transformer<DateList>> stages) {
+            this.names = Collections.unmodifiableList(names);
+            this.stages = Collections.unmodifiableList(stages);
         }
-        return dates;
     }
 
     private void validateFrequency() {
@@ -1048,6 +1090,112 @@ public class Recur implements Serializable {
         return cal;
     }
 
+    /**
+     * Generates the dates of this recurrence one period at a time. Candidates in each period are sorted prior to
+     * applying the COUNT and UNTIL limits, and candidates before the seed are not counted as instances.
+     */
+    private class DateIterator implements Iterator<Date> {
+
+        private final Date seed;
+
+        private final Date from;
+
+        private final Value value;
+
+        private final Calendar cal;
+
+        private final ExpansionPlan plan;
+
+        private int instanceCount;
+
+        private int noCandidateIncrementCount;
+
+        private DateList candidates;
+
+        private int candidateIndex;
+
+        private Date next;
+
+        private boolean finished;
+
+        DateIterator(final Date seed, final Date from, final Value value) {
+            this.seed = seed;
+            this.from = from;
+            this.value = value;
+            this.cal = getCalendarInstance(seed, true);
+            final Calendar rootSeed = (Calendar) cal.clone();
+            this.plan = getExpansionPlan(rootSeed);
+            // optimize the start time for selecting candidates..
+            this.instanceCount = fastForward(cal, rootSeed, from);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                if (candidates != null && candidateIndex < candidates.size()) {
+                    final Date candidate = candidates.get(candidateIndex++);
+                    // don't count candidates that occur before the seed date..
+                    if (candidate.before(seed)) {
+                        continue;
+                    }
+                    if ((getUntil() != null && candidate.after(getUntil()))
+                            || (getCount() >= 1 && instanceCount >= getCount())) {
+                        finished = true;
+                    } else {
+                        instanceCount++;
+                        if (from == null || !candidate.before(from)) {
+                            next = candidate;
+                        }
+                    }
+                } else {
+                    nextPeriod();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Date next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Date candidate = next;
+            next = null;
+            return candidate;
+        }
+
+        /**
+         * Expands the candidates for the current period and increments the calendar to the next period.
+         */
+        private void nextPeriod() {
+            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
+            if (candidateSeed instanceof DateTime) {
+                if (seed instanceof DateTime && ((DateTime) seed).isUtc()) {
+                    ((DateTime) candidateSeed).setUtc(true);
+                } else {
+                    ((DateTime) candidateSeed).setTimeZone(seed instanceof DateTime
+                            ? ((DateTime) seed).getTimeZone() : null);
+                }
+            }
+
+            // candidateSeed = date used for the start of
+            //                 the current period.
+            candidates = getCandidates(plan, candidateSeed, value);
+            candidateIndex = 0;
+            if (!candidates.isEmpty()) {
+                noCandidateIncrementCount = 0;
+                // sort candidates for identifying when UNTIL date is exceeded..
+                Collections.sort(candidates);
+            } else {
+                noCandidateIncrementCount++;
+                if ((maxIncrementCount > 0) && (noCandidateIncrementCount > maxIncrementCount)) {
+                    finished = true;
+                }
+            }
+            increment(cal);
+        }
+    }
+
     /**
      * @param stream
      * @throws IOException
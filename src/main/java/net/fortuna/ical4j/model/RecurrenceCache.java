@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.util.Configurator;
+import net.fortuna.ical4j.util.Dates;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of recurrence expansions, such that the same recurrence (e.g. a weekly meeting viewed by many
+ * attendees) is not expanded again for every request. Entries are keyed by the recurrence rule, seed date (including
+ * its timezone) and value type, and hold the sorted instants of the most recently expanded window. Requests for a
+ * window contained within a cached window are answered from the cached instants.
+ * <p/>
+ * The size of the cache is bounded by the total number of cached instants, with the least recently used expansions
+ * evicted first. The default cache is disabled unless a maximum size is specified with the following configuration
+ * property:
+ * <pre>
+ * net.fortuna.ical4j.recur.cache.size=100000
+ * </pre>
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class RecurrenceCache {
+
+    /**
+     * The configuration property specifying the maximum number of instants held by the default cache.
+     */
+    public static final String KEY_CACHE_SIZE = "net.fortuna.ical4j.recur.cache.size";
+
+    private static final RecurrenceCache INSTANCE = new RecurrenceCache(
+            Configurator.getIntProperty(KEY_CACHE_SIZE).orElse(0));
+
+    private final long maxWeight;
+
+    /**
+     * Expansions in access order, guarded by the map itself.
+     */
+    private final Map<Key, Entry> expansions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxWeight the maximum number of instants held by the cache (zero disables the cache)
+     */
+    public RecurrenceCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return the default cache used by {@link Recur#getDates(Date, Date, Date, Value)}
+     */
+    public static RecurrenceCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if expansions are cached
+     */
+    public boolean isEnabled() {
+        return maxWeight > 0;
+    }
+
+    /**
+     * Returns the dates of the specified recurrence in the specified period, from the cache where a cached expansion
+     * includes the period.
+     *
+     * @param recur       a recurrence rule
+     * @param seed        the start date of the recurrence's first instance
+     * @param periodStart the start of the period (inclusive)
+     * @param periodEnd   the end of the period (inclusive)
+     * @param value       the type of dates to generate (i.e. date/date-time)
+     * @return a new list of dates represented by the recurrence in the period
+     * @see Recur#getDates(Date, Date, Date, Value)
+     */
+    public DateList getDates(final Recur recur, final Date seed, final Date periodStart, final Date periodEnd,
+                             final Value value) {
+
+        if (!isEnabled()) {
+            return recur.expand(seed, periodStart, periodEnd, value, -1);
+        }
+        final Key key = new Key(recur, seed, value);
+        final long start = periodStart.getTime();
+        final long end = periodEnd.getTime();
+        final Entry entry;
+        synchronized (expansions) {
+            entry = expansions.get(key);
+        }
+        if (entry != null && entry.includes(start, end)) {
+            hitCount.increment();
+            return entry.getDates(seed, start, end, value);
+        }
+        missCount.increment();
+        final DateList dates = recur.expand(seed, periodStart, periodEnd, value, -1);
+        final long[] instants = new long[dates.size()];
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = dates.get(i).getTime();
+        }
+        put(key, new Entry(start, end, instants));
+        return dates;
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of requests requiring expansion of the recurrence
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of expansions evicted to bound the size of the cache
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of cached expansions
+     */
+    public int size() {
+        synchronized (expansions) {
+            return expansions.size();
+        }
+    }
+
+    /**
+     * @return the total number of cached instants
+     */
+    public long getWeight() {
+        synchronized (expansions) {
+            return weight;
+        }
+    }
+
+    /**
+     * Clears all cached expansions. Statistics are not reset.
+     */
+    public void clear() {
+        synchronized (expansions) {
+            expansions.clear();
+            weight = 0;
+        }
+    }
+
+    private void put(final Key key, final Entry entry) {
+        // expansions larger than the cache are not retained..
+        if (entry.getWeight() > maxWeight) {
+            return;
+        }
+        synchronized (expansions) {
+            final Entry previous = expansions.put(key, entry);
+            if (previous != null) {
+                weight -= previous.getWeight();
+            }
+            weight += entry.getWeight();
+            final Iterator<Entry> eldest = expansions.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                final Entry evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.getWeight();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Identifies an expansion by the canonical form of a recurrence rule and the seed date. Timezones are compared
+     * by definition, with identical instances (e.g. those shared by a timezone registry) matching without comparison.
+     */
+    private static final class Key {
+
+        private final String rule;
+
+        private final long seed;
+
+        private final boolean dateTime;
+
+        private final boolean utc;
+
+        private final java.util.TimeZone timeZone;
+
+        private final Value value;
+
+        Key(final Recur recur, final Date seed, final Value value) {
+            this.rule = recur.toString();
+            this.seed = seed.getTime();
+            this.dateTime = seed instanceof DateTime;
+            this.utc = dateTime && ((DateTime) seed).isUtc();
+            this.timeZone = dateTime ? ((DateTime) seed).getTimeZone() : null;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return seed == key.seed && dateTime == key.dateTime && utc == key.utc && rule.equals(key.rule)
+                    && (value != null ? value.equals(key.value) : key.value == null)
+                    && (timeZone == key.timeZone || (timeZone != null && timeZone.equals(key.timeZone)));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = rule.hashCode();
+            result = 31 * result + Long.hashCode(seed);
+            result = 31 * result + (timeZone != null ? timeZone.getID().hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * The sorted instants of a recurrence in an expanded window.
+     */
+    private static final class Entry {
+
+        private final long start;
+
+        private final long end;
+
+        private final long[] instants;
+
+        Entry(final long start, final long end, final long[] instants) {
+            this.start = start;
+            this.end = end;
+            this.instants = instants;
+        }
+
+        boolean includes(final long periodStart, final long periodEnd) {
+            return start <= periodStart && end >= periodEnd;
+        }
+
+        long getWeight() {
+            // allow for the overhead of empty expansions..
+            return instants.length + 1;
+        }
+
+        DateList getDates(final Date seed, final long periodStart, final long periodEnd, final Value value) {
+            final DateList dates = new DateList(value);
+            if (seed instanceof DateTime) {
+                if (((DateTime) seed).isUtc()) {
+                    dates.setUtc(true);
+                } else {
+                    dates.setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            int index = Arrays.binarySearch(instants, periodStart);
+            if (index < 0) {
+                index = -index - 1;
+            } else {
+                // include equal instants..
+                while (index > 0 && instants[index - 1] == periodStart) {
+                    index--;
+                }
+            }
+            for (; index < instants.length && instants[index] <= periodEnd; index++) {
+                // initialise as per Recur.expand()..
+                final Date date = Dates.getInstance(new java.util.Date(instants[index]), value);
+                if (date instanceof DateTime) {
+                    if (seed instanceof DateTime && ((DateTime) seed).isUtc()) {
+                        ((DateTime) date).setUtc(true);
+                    } else {
+                        ((DateTime) date).setTimeZone(seed instanceof DateTime
+                                ? ((DateTime) seed).getTimeZone() : null);
+                    }
+                }
+                dates.add(date);
+            }
+            return dates;
+        }
+    }
+}
@@ -75,10 +75,13 @@ public abstract class Observance extends Component {
     public static final String DAYLIGHT = "DAYLIGHT";
 
     // TODO: clear cache when observance definition changes (??)
-    private long[] onsetsMillisec;
-    private DateTime[] onsetsDates;
+    /**
+     * Calculated onsets, published as a whole such that observances of a shared timezone may be queried
+     * concurrently.
+     */
+    private transient volatile OnsetCache onsets;
     //    private Map onsets = new TreeMap();
-    private Date initialOnset = null;
+    private volatile Date initialOnset = null;
 
     /**
      * Used for parsing times in a UTC date-time representation.
@@ -92,9 +95,6 @@ public abstract class Observance extends Component {
         UTC_FORMAT.setLenient(false);
     }
 
-    /* If this is set we have rrules. If we get a date after this rebuild onsets */
-    private Date onsetLimit;
-
     /**
      * Constructs a timezone observance with the specified name and no properties.
      *
@@ -171,8 +171,10 @@ public abstract class Observance extends Component {
             initialOnsetUTC = new DateTime(new java.util.Date(0));
         }
 
+        Date initialOnset = this.initialOnset;
         if (initialOnset == null) {
             initialOnset = applyOffsetFrom(initialOnsetUTC);
+            this.initialOnset = initialOnset;
         }
 
         // observance not applicable if date is before the effective date of this observance..
@@ -180,8 +182,9 @@ public abstract class Observance extends Component {
             return null;
         }
 
-        if ((onsetsMillisec != null) && (onsetLimit == null || date.before(onsetLimit))) {
-            return getCachedOnset(date);
+        final OnsetCache onsets = this.onsets;
+        if (onsets != null && (onsets.limit == null || date.before(onsets.limit))) {
+            return onsets.getOnset(date);
         }
 
         Date onset = initialOnset;
@@ -212,6 +215,8 @@ public abstract class Observance extends Component {
         }
 
         // check recurrence rules for latest applicable onset..
+        // if this is set we have rrules. If we get a date after this rebuild onsets
+        Date onsetLimit = null;
         final List<RRule> rrules = getProperties(Property.RRULE);
         for (RRule rrule : rrules) {            
             // include future onsets to determine onset period..
@@ -241,31 +246,51 @@ public abstract class Observance extends Component {
         // cache onsets..
         Collections.sort(cacheableOnsets);
         DateTime cacheableOnset;
-        this.onsetsMillisec = new long[cacheableOnsets.size()];
-        this.onsetsDates = new DateTime[onsetsMillisec.length];
+        final long[] onsetsMillisec = new long[cacheableOnsets.size()];
+        final DateTime[] onsetsDates = new DateTime[onsetsMillisec.length];
 
         for (int i = 0; i < onsetsMillisec.length; i++) {
             cacheableOnset = (DateTime) cacheableOnsets.get(i);
             onsetsMillisec[i] = cacheableOnset.getTime();
             onsetsDates[i] = cacheableOnset;
         }
+        // concurrent calculations are equivalent, so the last one published wins..
+        this.onsets = new OnsetCache(onsetsMillisec, onsetsDates, onsetLimit);
 
         return onset;
     }
 
     /**
-     * Returns a cached onset for the specified date.
-     *
-     * @param date
-     * @return a cached onset date or null if no cached onset is applicable for the specified date
+     * An immutable snapshot of calculated onsets.
      */
-    private DateTime getCachedOnset(final Date date) {
-        int index = Arrays.binarySearch(onsetsMillisec, date.getTime());
-        if (index >= 0) {
-            return onsetsDates[index];
-        } else {
-            int insertionIndex = -index - 1;
-            return onsetsDates[insertionIndex - 1];
+    private static final class OnsetCache {
+
+        private final long[] onsetsMillisec;
+
+        private final DateTime[] onsetsDates;
+
+        private final Date limit;
+
+        private OnsetCache(final long[] onsetsMillisec, final DateTime[] onsetsDates, final Date limit) {
+            this.onsetsMillisec = onsetsMillisec;
+            this.onsetsDates = onsetsDates;
+            this.limit = limit;
+        }
+
+        /**
+         * Returns a cached onset for the specified date.
+         *
+         * @param date
+         * @return a cached onset date or null if no cached onset is applicable for the specified date
+         */
+        private DateTime getOnset(final Date date) {
+            int index = Arrays.binarySearch(onsetsMillisec, date.getTime());
+            if (index >= 0) {
+                return onsetsDates[index];
+            } else {
+                int insertionIndex = -index - 1;
+                return onsetsDates[insertionIndex - 1];
+            }
         }
     }
 
@@ -58,6 +58,11 @@ public class Attendee extends Property {
 
     private URI calAddress;
 
+    /**
+     * An address that is parsed on first access of the URI, where parsing has been deferred.
+     */
+    private String deferredValue;
+
     /**
      * Default constructor.
      */
@@ -108,6 +113,28 @@ public class Attendee extends Property {
     @Override
     public final void setValue(final String aValue) throws URISyntaxException {
         calAddress = Uris.create(aValue);
+        deferredValue = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean deferValue(final String aValue) {
+        if (aValue == null) {
+            return false;
+        }
+        calAddress = null;
+        deferredValue = aValue;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isValueDeferred() {
+        return deferredValue != null;
     }
 
     /**
@@ -143,6 +170,14 @@ public class Attendee extends Property {
      * @return Returns the calAddress.
      */
     public final URI getCalAddress() {
+        if (deferredValue != null) {
+            try {
+                calAddress = Uris.create(deferredValue);
+            } catch (URISyntaxException e) {
+                throw new CalendarException(e);
+            }
+            deferredValue = null;
+        }
         return calAddress;
     }
 
@@ -159,6 +194,7 @@ public class Attendee extends Property {
      */
     public final void setCalAddress(final URI calAddress) {
         this.calAddress = calAddress;
+        this.deferredValue = null;
     }
 
     /**
@@ -167,7 +203,7 @@ public class Attendee extends Property {
     @Override
     public final Property copy() {
         // URI are immutable
-        return new Attendee(new ParameterList(getParameters(), false), calAddress);
+        return new Attendee(new ParameterList(getParameters(), false), getCalAddress());
     }
 
     public static class Factory extends Content.Factory implements PropertyFactory {
@@ -60,6 +60,11 @@ public abstract class DateProperty extends Property {
 
     private TimeZone timeZone;
 
+    /**
+     * A value that is parsed on first access of the date, where parsing has been deferred.
+     */
+    private String deferredValue;
+
     /**
      * @param name       the property name
      * @param parameters a list of initial parameters
@@ -90,6 +95,9 @@ public abstract class DateProperty extends Property {
      * @return Returns the date.
      */
     public final Date getDate() {
+        if (deferredValue != null) {
+            parseDeferredValue();
+        }
         return date;
     }
 
@@ -100,6 +108,7 @@ public abstract class DateProperty extends Property {
      * @param date The date to set.
      */
     public final void setDate(final Date date) {
+        this.deferredValue = null;
         this.date = date;
         if (date instanceof DateTime) {
             if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
@@ -129,6 +138,7 @@ public abstract class DateProperty extends Property {
      */
     @Override
     public void setValue(final String value) throws ParseException {
+        this.deferredValue = null;
         // value can be either a date-time or a date..
         if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
             // ensure timezone is null for VALUE=DATE properties..
@@ -147,6 +157,45 @@ public abstract class DateProperty extends Property {
         return Strings.valueOf(getDate());
     }
 
+    /**
+     * Defers parsing of the specified value until the date is first accessed. Any timezone applied prior to
+     * parsing is applied to the parsed date. Parameters must be set prior to calling this method.
+     *
+     * @param value a string representation of a DATE or DATE-TIME value
+     * @return true
+     */
+    @Override
+    public boolean deferValue(final String value) {
+        if (value == null) {
+            return false;
+        }
+        this.date = null;
+        if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
+            // ensure timezone is null for VALUE=DATE properties..
+            updateTimeZone(null);
+        }
+        this.deferredValue = value;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isValueDeferred() {
+        return deferredValue != null;
+    }
+
+    private void parseDeferredValue() {
+        final String value = deferredValue;
+        try {
+            setValue(value);
+        } catch (ParseException e) {
+            deferredValue = value;
+            throw new CalendarException(e);
+        }
+    }
+
     /**
      * Publically available method to update the current timezone.
      *
@@ -182,11 +231,12 @@ public abstract class DateProperty extends Property {
     private void updateTimeZone(final TimeZone timezone) {
         this.timeZone = timezone;
         if (timezone != null) {
-            if (getDate() != null && !(getDate() instanceof DateTime)) {
+            // a deferred value is parsed in the updated timezone..
+            if (deferredValue == null && getDate() != null && !(getDate() instanceof DateTime)) {
                 throw new UnsupportedOperationException(
                         "TimeZone is not applicable to current value");
             }
-            if (getDate() != null) {
+            if (deferredValue == null && getDate() != null) {
                 ((DateTime) getDate()).setTimeZone(timezone);
             }
 
@@ -54,6 +54,11 @@ public class ExRule extends Property {
 
     private Recur recur;
 
+    /**
+     * A rule that is parsed on first access of the recurrence, where parsing has been deferred.
+     */
+    private String deferredValue;
+
     /**
      * Default constructor.
      */
@@ -95,6 +100,15 @@ public class ExRule extends Property {
      * @return Returns the recur.
      */
     public final Recur getRecur() {
+        if (deferredValue != null) {
+            final String value = deferredValue;
+            try {
+                recur = new Recur(value);
+            } catch (ParseException e) {
+                throw new CalendarException(e);
+            }
+            deferredValue = null;
+        }
         return recur;
     }
 
@@ -104,6 +118,28 @@ public class ExRule extends Property {
     @Override
     public final void setValue(final String aValue) throws ParseException {
         recur = new Recur(aValue);
+        deferredValue = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean deferValue(final String aValue) {
+        if (aValue == null) {
+            return false;
+        }
+        recur = null;
+        deferredValue = aValue;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isValueDeferred() {
+        return deferredValue != null;
     }
 
     /**
@@ -119,6 +155,7 @@ public class ExRule extends Property {
      */
     public final void setRecur(final Recur recur) {
         this.recur = recur;
+        this.deferredValue = null;
     }
 
     @Override
@@ -135,6 +135,11 @@ public class Organizer extends Property {
 
     private URI calAddress;
 
+    /**
+     * An address that is parsed on first access of the URI, where parsing has been deferred.
+     */
+    private String deferredValue;
+
     /**
      * Default constructor.
      */
@@ -211,6 +216,14 @@ public class Organizer extends Property {
      * @return Returns the calAddress.
      */
     public final URI getCalAddress() {
+        if (deferredValue != null) {
+            try {
+                calAddress = Uris.create(deferredValue);
+            } catch (URISyntaxException e) {
+                throw new CalendarException(e);
+            }
+            deferredValue = null;
+        }
         return calAddress;
     }
 
@@ -220,6 +233,28 @@ public class Organizer extends Property {
     @Override
     public final void setValue(final String aValue) throws URISyntaxException {
         calAddress = Uris.create(aValue);
+        deferredValue = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean deferValue(final String aValue) {
+        if (aValue == null) {
+            return false;
+        }
+        calAddress = null;
+        deferredValue = aValue;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isValueDeferred() {
+        return deferredValue != null;
     }
 
     /**
@@ -235,6 +270,7 @@ public class Organizer extends Property {
      */
     public final void setCalAddress(final URI calAddress) {
         this.calAddress = calAddress;
+        this.deferredValue = null;
     }
 
     public static class Factory extends Content.Factory implements PropertyFactory {
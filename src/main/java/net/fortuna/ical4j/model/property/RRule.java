@@ -55,6 +55,11 @@ public class RRule extends Property {
 
     private Recur recur;
 
+    /**
+     * A rule that is parsed on first access of the recurrence, where parsing has been deferred.
+     */
+    private String deferredValue;
+
     /**
      * Default constructor.
      */
@@ -106,6 +111,15 @@ public class RRule extends Property {
      * @return Returns the recur.
      */
     public final Recur getRecur() {
+        if (deferredValue != null) {
+            final String value = deferredValue;
+            try {
+                recur = new Recur(value);
+            } catch (ParseException e) {
+                throw new CalendarException(e);
+            }
+            deferredValue = null;
+        }
         return recur;
     }
 
@@ -115,6 +129,28 @@ public class RRule extends Property {
     @Override
     public final void setValue(final String aValue) throws ParseException {
         recur = new Recur(aValue);
+        deferredValue = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean deferValue(final String aValue) {
+        if (aValue == null) {
+            return false;
+        }
+        recur = null;
+        deferredValue = aValue;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isValueDeferred() {
+        return deferredValue != null;
     }
 
     /**
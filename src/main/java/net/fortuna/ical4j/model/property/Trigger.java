@@ -274,6 +274,17 @@ public class Trigger extends UtcProperty {
         }
     }
 
+    /**
+     * A trigger value may be either a duration or a date-time, so parsing is not deferred.
+     *
+     * @param aValue a string representation of a duration or date-time
+     * @return false
+     */
+    @Override
+    public final boolean deferValue(final String aValue) {
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
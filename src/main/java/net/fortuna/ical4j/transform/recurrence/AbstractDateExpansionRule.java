@@ -5,11 +5,15 @@ import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.Recur.Frequency;
 import net.fortuna.ical4j.model.WeekDay;
+import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.transform.Transformer;
 import net.fortuna.ical4j.util.Dates;
 
 import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -118,6 +122,78 @@ public abstract class AbstractDateExpansionRule implements Transformer<DateList>
         return cal;
     }
 
+    /**
+     * Returns a bit mask with a bit set for each value in the specified list. Masks allow a date field to be tested
+     * against a rule part without searching the list. Values outside the range 0 to 63 (e.g. negative offsets) are
+     * not included in the mask.
+     *
+     * @param values a list of rule part values
+     * @return a bit mask of the values
+     */
+    protected static long getMask(final List<Integer> values) {
+        long mask = 0;
+        for (final int value : values) {
+            if (value >= 0 && value < Long.SIZE) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask a bit mask of rule part values
+     * @param value a date field value
+     * @return true if the value is included in the mask, otherwise false
+     */
+    protected static boolean isSet(final long mask, final int value) {
+        return value >= 0 && value < Long.SIZE && (mask & (1L << value)) != 0;
+    }
+
+    /**
+     * Returns the local date represented by the fields of the specified calendar. Local dates are used for date
+     * arithmetic, such that calendar instances are only required to convert to and from the time zone of the dates
+     * being transformed.
+     *
+     * @param cal a calendar initialised with the date to convert
+     * @return a local date
+     */
+    protected static LocalDate getLocalDate(final Calendar cal) {
+        return LocalDate.of(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Returns an instance of the specified type on the given local date, retaining the time of day and timezone of
+     * the reference date.
+     *
+     * @param referenceDate the date providing the time of day and timezone
+     * @param localDate the date of the returned instance
+     * @param cal a calendar initialised for the timezone of the reference date
+     * @param type the type of date to return
+     * @return a date instance
+     */
+    protected static Date getDate(final Date referenceDate, final LocalDate localDate, final Calendar cal,
+                                  final Value type) {
+        cal.setTime(referenceDate);
+        cal.set(localDate.getYear(), localDate.getMonthValue() - 1, localDate.getDayOfMonth());
+        return Dates.getInstance(getTime(referenceDate, cal), type);
+    }
+
+    /**
+     * @param weekDay a week day
+     * @return the equivalent day of week
+     */
+    protected static DayOfWeek getDayOfWeek(final WeekDay weekDay) {
+        switch (weekDay.getDay()) {
+            case SU: return DayOfWeek.SUNDAY;
+            case MO: return DayOfWeek.MONDAY;
+            case TU: return DayOfWeek.TUESDAY;
+            case WE: return DayOfWeek.WEDNESDAY;
+            case TH: return DayOfWeek.THURSDAY;
+            case FR: return DayOfWeek.FRIDAY;
+            default: return DayOfWeek.SATURDAY;
+        }
+    }
+
     /**
      * Get a DateTime from cal.getTime() with the timezone of the given reference date.
      *
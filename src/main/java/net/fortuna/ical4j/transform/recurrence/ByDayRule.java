@@ -5,12 +5,13 @@ import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.Recur.Frequency;
 import net.fortuna.ical4j.model.WeekDay;
 import net.fortuna.ical4j.model.WeekDayList;
-import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.Dates;
 
-import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Calendar;
+import java.util.Optional;
 
 /**
  * Applies BYDAY rules specified in this Recur instance to the specified date list. If no BYDAY rules are specified
@@ -20,14 +21,36 @@ public class ByDayRule extends AbstractDateExpansionRule {
 
     private final WeekDayList dayList;
 
+    /**
+     * A mask of the days of week (by {@link DayOfWeek#getValue()}) without an offset.
+     */
+    private final long dayOfWeekMask;
+
+    /**
+     * The number of week days in the list matching each day of week (by {@link DayOfWeek#getValue()}) that are
+     * applicable when limiting dates.
+     */
+    private final int[] limitCounts;
+
     public ByDayRule(WeekDayList dayList, Frequency frequency) {
-        super(frequency);
-        this.dayList = dayList;
+        this(dayList, frequency, Optional.empty());
     }
 
     public ByDayRule(WeekDayList dayList, Frequency frequency, Optional<WeekDay.Day> weekStartDay) {
         super(frequency, weekStartDay);
         this.dayList = dayList;
+        long mask = 0;
+        this.limitCounts = new int[DayOfWeek.SUNDAY.getValue() + 1];
+        for (final WeekDay weekDay : dayList) {
+            final int dayOfWeek = getDayOfWeek(weekDay).getValue();
+            if (weekDay.getOffset() == 0) {
+                mask |= 1L << dayOfWeek;
+            }
+            if (Math.abs(weekDay.getOffset()) <= 1) {
+                limitCounts[dayOfWeek]++;
+            }
+        }
+        this.dayOfWeekMask = mask;
     }
 
     @Override
@@ -36,141 +59,79 @@ public class ByDayRule extends AbstractDateExpansionRule {
             return dates;
         }
         final DateList weekDayDates = Dates.getDateListInstance(dates);
-
-        Function<Date, List<Date>> transformer = null;
-        switch (getFrequency()) {
-            case WEEKLY: transformer = new WeeklyExpansionFilter(dates.getType()); break;
-            case MONTHLY: transformer = new MonthlyExpansionFilter(dates.getType()); break;
-            case YEARLY: transformer = new YearlyExpansionFilter(dates.getType()); break;
-            case DAILY:
-            default: transformer = new LimitFilter();
+        if (dates.isEmpty()) {
+            return weekDayDates;
         }
-
+        final Calendar cal = getCalendarInstance(dates.get(0), true);
         for (final Date date : dates) {
-            List<Date> transformed = transformer.apply(date);
-
-            // filter by offset
-            List<Date> filtered = new ArrayList<>();
-            dayList.forEach(day -> filtered.addAll(getOffsetDates(transformed.stream().filter(d ->
-                getCalendarInstance(d, true).get(Calendar.DAY_OF_WEEK) == WeekDay.getCalendarDay(day))
-                .collect(Collectors.toCollection(() -> Dates.getDateListInstance(weekDayDates))), day.getOffset())));
-            weekDayDates.addAll(filtered);
-        }
-        return weekDayDates;
-    }
-
-    private class LimitFilter implements Function<Date, List<Date>> {
-
-        @Override
-        public List<Date> apply(Date date) {
-            final Calendar cal = getCalendarInstance(date, true);
-            if (dayList.contains(WeekDay.getWeekDay(cal))) {
-                return Arrays.asList(date);
-            }
-            return Collections.emptyList();
-        }
-    }
-
-    private class WeeklyExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public WeeklyExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, true);
-            final int weekNo = cal.get(Calendar.WEEK_OF_YEAR);
-            // construct a list of possible week days..
-            cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-            while (cal.get(Calendar.WEEK_OF_YEAR) == weekNo) {
-                if (!dayList.stream().map(weekDay -> WeekDay.getCalendarDay(weekDay))
-                        .filter(calDay -> cal.get(Calendar.DAY_OF_WEEK) == calDay)
-                        .collect(Collectors.toList()).isEmpty()) {
-                    retVal.add(Dates.getInstance(getTime(date, cal), type));
-                }
-                cal.add(Calendar.DAY_OF_WEEK, 1);
+            cal.setTime(date);
+            final LocalDate localDate = getLocalDate(cal);
+            switch (getFrequency()) {
+                case WEEKLY:
+                    final LocalDate weekStart = localDate.minusDays(
+                            (cal.get(Calendar.DAY_OF_WEEK) - cal.getFirstDayOfWeek() + 7) % 7);
+                    expand(date, weekStart, weekStart.plusDays(6), cal, weekDayDates);
+                    break;
+                case MONTHLY:
+                    expand(date, localDate.withDayOfMonth(1), localDate.withDayOfMonth(localDate.lengthOfMonth()),
+                            cal, weekDayDates);
+                    break;
+                case YEARLY:
+                    expand(date, localDate.withDayOfYear(1), localDate.withDayOfYear(localDate.lengthOfYear()),
+                            cal, weekDayDates);
+                    break;
+                case DAILY:
+                default:
+                    limit(date, localDate.getDayOfWeek(), weekDayDates);
             }
-            return retVal;
-        }
-    }
-
-    private class MonthlyExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public MonthlyExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, true);
-            final int month = cal.get(Calendar.MONTH);
-            // construct a list of possible month days..
-            cal.set(Calendar.DAY_OF_MONTH, 1);
-            while (cal.get(Calendar.MONTH) == month) {
-                if (!dayList.stream().map(weekDay -> WeekDay.getCalendarDay(weekDay))
-                        .filter(calDay -> cal.get(Calendar.DAY_OF_WEEK) == calDay)
-                        .collect(Collectors.toList()).isEmpty()) {
-                    retVal.add(Dates.getInstance(getTime(date, cal), type));
-                }
-                cal.add(Calendar.DAY_OF_MONTH, 1);
-            }
-            return retVal;
         }
+        return weekDayDates;
     }
 
-    private class YearlyExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public YearlyExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, true);
-            final int year = cal.get(Calendar.YEAR);
-            // construct a list of possible year days..
-            cal.set(Calendar.DAY_OF_YEAR, 1);
-            while (cal.get(Calendar.YEAR) == year) {
-                if (!dayList.stream().map(weekDay -> WeekDay.getCalendarDay(weekDay))
-                        .filter(calDay -> cal.get(Calendar.DAY_OF_WEEK) == calDay)
-                        .collect(Collectors.toList()).isEmpty()) {
-                    retVal.add(Dates.getInstance(getTime(date, cal), type));
-                }
-                cal.add(Calendar.DAY_OF_YEAR, 1);
+    /**
+     * Adds the specified date to the list of dates if its day of week is included in the day list. Where a week day
+     * with an offset matches (i.e. has an offset of 1 or -1) the date is added for each match.
+     *
+     * @param date a date to filter
+     * @param dayOfWeek the day of week of the date
+     * @param weekDayDates the list of filtered dates
+     */
+    private void limit(final Date date, final DayOfWeek dayOfWeek, final DateList weekDayDates) {
+        if (isSet(dayOfWeekMask, dayOfWeek.getValue())) {
+            for (int i = 0; i < limitCounts[dayOfWeek.getValue()]; i++) {
+                weekDayDates.add(date);
             }
-            return retVal;
         }
     }
 
     /**
-     * Returns a single-element sublist containing the element of <code>list</code> at <code>offset</code>. Valid
-     * offsets are from 1 to the size of the list. If an invalid offset is supplied, all elements from <code>list</code>
-     * are added to <code>sublist</code>.
+     * Adds the dates between the specified start and end (inclusive) that match each week day in the day list. Where
+     * a week day specifies an offset only the matching date at that offset is added.
      *
-     * @param dates
-     * @param offset
+     * @param date the date providing the time of day and timezone of expanded dates
+     * @param start the first date of the expansion period
+     * @param end the last date of the expansion period
+     * @param cal a calendar initialised for the timezone of the date
+     * @param weekDayDates the list of expanded dates
      */
-    private List<Date> getOffsetDates(final DateList dates, final int offset) {
-        if (offset == 0) {
-            return dates;
-        }
-        final List<Date> offsetDates = Dates.getDateListInstance(dates);
-        final int size = dates.size();
-        if (offset < 0 && offset >= -size) {
-            offsetDates.add(dates.get(size + offset));
-        } else if (offset > 0 && offset <= size) {
-            offsetDates.add(dates.get(offset - 1));
+    private void expand(final Date date, final LocalDate start, final LocalDate end, final Calendar cal,
+                        final DateList weekDayDates) {
+        for (final WeekDay weekDay : dayList) {
+            final LocalDate first = start.with(TemporalAdjusters.nextOrSame(getDayOfWeek(weekDay)));
+            if (first.isAfter(end)) {
+                continue;
+            }
+            final int count = (int) ((end.toEpochDay() - first.toEpochDay()) / 7) + 1;
+            final int offset = weekDay.getOffset();
+            if (offset == 0) {
+                for (int i = 0; i < count; i++) {
+                    weekDayDates.add(getDate(date, first.plusWeeks(i), cal, weekDayDates.getType()));
+                }
+            } else if (offset > 0 && offset <= count) {
+                weekDayDates.add(getDate(date, first.plusWeeks(offset - 1), cal, weekDayDates.getType()));
+            } else if (offset < 0 && offset >= -count) {
+                weekDayDates.add(getDate(date, first.plusWeeks(count + offset), cal, weekDayDates.getType()));
+            }
         }
-        return offsetDates;
     }
 }
@@ -5,11 +5,10 @@ import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.NumberList;
 import net.fortuna.ical4j.model.Recur.Frequency;
 import net.fortuna.ical4j.model.WeekDay;
-import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.Dates;
 
-import java.util.*;
-import java.util.function.Function;
+import java.util.Calendar;
+import java.util.Optional;
 
 import static net.fortuna.ical4j.model.Recur.Frequency.*;
 
@@ -21,14 +20,18 @@ public class ByHourRule extends AbstractDateExpansionRule {
 
     private final NumberList hourList;
 
+    private final long hourMask;
+
     public ByHourRule(NumberList hourList, Frequency frequency) {
         super(frequency);
         this.hourList = hourList;
+        this.hourMask = getMask(hourList);
     }
 
     public ByHourRule(NumberList hourList, Frequency frequency, Optional<WeekDay.Day> weekStartDay) {
         super(frequency, weekStartDay);
         this.hourList = hourList;
+        this.hourMask = getMask(hourList);
     }
 
     @Override
@@ -37,49 +40,22 @@ public class ByHourRule extends AbstractDateExpansionRule {
             return dates;
         }
         final DateList hourlyDates = Dates.getDateListInstance(dates);
+        if (dates.isEmpty()) {
+            return hourlyDates;
+        }
+        final Calendar cal = getCalendarInstance(dates.get(0), true);
         for (final Date date : dates) {
-            if (EnumSet.of(DAILY, WEEKLY, MONTHLY, YEARLY).contains(getFrequency())) {
-                hourlyDates.addAll(new ExpansionFilter(hourlyDates.getType()).apply(date));
-            } else {
-                Optional<Date> limit = new LimitFilter().apply(date);
-                if (limit.isPresent()) {
-                    hourlyDates.add(limit.get());
+            cal.setTime(date);
+            if (getFrequency() != SECONDLY && getFrequency() != MINUTELY && getFrequency() != HOURLY) {
+                // construct a list of possible hours..
+                for (final int hour : hourList) {
+                    cal.set(Calendar.HOUR_OF_DAY, hour);
+                    hourlyDates.add(Dates.getInstance(getTime(date, cal), hourlyDates.getType()));
                 }
+            } else if (isSet(hourMask, cal.get(Calendar.HOUR_OF_DAY))) {
+                hourlyDates.add(date);
             }
         }
         return hourlyDates;
     }
-
-    private class LimitFilter implements Function<Date, Optional<Date>> {
-
-        @Override
-        public Optional<Date> apply(Date date) {
-            final Calendar cal = getCalendarInstance(date, true);
-            if (hourList.contains(cal.get(Calendar.HOUR_OF_DAY))) {
-                return Optional.of(date);
-            }
-            return Optional.empty();
-        }
-    }
-
-    private class ExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public ExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, true);
-            // construct a list of possible months..
-            hourList.forEach(hour -> {
-                cal.set(Calendar.HOUR_OF_DAY, hour);
-                retVal.add(Dates.getInstance(getTime(date, cal), type));
-            });
-            return retVal;
-        }
-    }
 }
@@ -5,11 +5,10 @@ import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.NumberList;
 import net.fortuna.ical4j.model.Recur.Frequency;
 import net.fortuna.ical4j.model.WeekDay;
-import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.Dates;
 
-import java.util.*;
-import java.util.function.Function;
+import java.util.Calendar;
+import java.util.Optional;
 
 import static net.fortuna.ical4j.model.Recur.Frequency.*;
 
@@ -21,14 +20,18 @@ public class ByMinuteRule extends AbstractDateExpansionRule {
 
     private final NumberList minuteList;
 
+    private final long minuteMask;
+
     public ByMinuteRule(NumberList minuteList, Frequency frequency) {
         super(frequency);
         this.minuteList = minuteList;
+        this.minuteMask = getMask(minuteList);
     }
 
     public ByMinuteRule(NumberList minuteList, Frequency frequency, Optional<WeekDay.Day> weekStartDay) {
         super(frequency, weekStartDay);
         this.minuteList = minuteList;
+        this.minuteMask = getMask(minuteList);
     }
 
     @Override
@@ -37,49 +40,22 @@ public class ByMinuteRule extends AbstractDateExpansionRule {
             return dates;
         }
         final DateList minutelyDates = Dates.getDateListInstance(dates);
+        if (dates.isEmpty()) {
+            return minutelyDates;
+        }
+        final Calendar cal = getCalendarInstance(dates.get(0), true);
         for (final Date date : dates) {
-            if (EnumSet.of(HOURLY, DAILY, WEEKLY, MONTHLY, YEARLY).contains(getFrequency())) {
-                minutelyDates.addAll(new ExpansionFilter(minutelyDates.getType()).apply(date));
-            } else {
-                Optional<Date> limit = new LimitFilter().apply(date);
-                if (limit.isPresent()) {
-                    minutelyDates.add(limit.get());
+            cal.setTime(date);
+            if (getFrequency() != SECONDLY && getFrequency() != MINUTELY) {
+                // construct a list of possible minutes..
+                for (final int minute : minuteList) {
+                    cal.set(Calendar.MINUTE, minute);
+                    minutelyDates.add(Dates.getInstance(getTime(date, cal), minutelyDates.getType()));
                 }
+            } else if (isSet(minuteMask, cal.get(Calendar.MINUTE))) {
+                minutelyDates.add(date);
             }
         }
         return minutelyDates;
     }
-
-    private class LimitFilter implements Function<Date, Optional<Date>> {
-
-        @Override
-        public Optional<Date> apply(Date date) {
-            final Calendar cal = getCalendarInstance(date, true);
-            if (minuteList.contains(cal.get(Calendar.MINUTE))) {
-                return Optional.of(date);
-            }
-            return Optional.empty();
-        }
-    }
-
-    private class ExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public ExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, true);
-            // construct a list of possible minutes..
-            minuteList.forEach(minute -> {
-                cal.set(Calendar.MINUTE, minute);
-                retVal.add(Dates.getInstance(getTime(date, cal), type));
-            });
-            return retVal;
-        }
-    }
 }
@@ -3,15 +3,14 @@ package net.fortuna.ical4j.transform.recurrence;
 import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.*;
 import net.fortuna.ical4j.model.Recur.Frequency;
-import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.Dates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Calendar;
-import java.util.*;
-import java.util.function.Function;
+import java.util.Optional;
 
 import static net.fortuna.ical4j.model.Recur.Frequency.MONTHLY;
 import static net.fortuna.ical4j.model.Recur.Frequency.YEARLY;
@@ -26,14 +25,18 @@ public class ByMonthDayRule extends AbstractDateExpansionRule {
 
     private final NumberList monthDayList;
 
+    private final long monthDayMask;
+
     public ByMonthDayRule(NumberList monthDayList, Frequency frequency) {
         super(frequency);
         this.monthDayList = monthDayList;
+        this.monthDayMask = getMask(monthDayList);
     }
 
     public ByMonthDayRule(NumberList monthDayList, Frequency frequency, Optional<WeekDay.Day> weekStartDay) {
         super(frequency, weekStartDay);
         this.monthDayList = monthDayList;
+        this.monthDayMask = getMask(monthDayList);
     }
 
     @Override
@@ -42,67 +45,44 @@ public class ByMonthDayRule extends AbstractDateExpansionRule {
             return dates;
         }
         final DateList monthDayDates = Dates.getDateListInstance(dates);
+        if (dates.isEmpty()) {
+            return monthDayDates;
+        }
+        final Calendar cal = getCalendarInstance(dates.get(0), true);
         for (final Date date : dates) {
-            if (EnumSet.of(MONTHLY, YEARLY).contains(getFrequency())) {
-                monthDayDates.addAll(new ExpansionFilter(monthDayDates.getType()).apply(date));
-            } else {
-                Optional<Date> limit = new LimitFilter().apply(date);
-                if (limit.isPresent()) {
-                    monthDayDates.add(limit.get());
-                }
+            cal.setTime(date);
+            if (getFrequency() == MONTHLY || getFrequency() == YEARLY) {
+                expand(date, cal, monthDayDates);
+            } else if (isSet(monthDayMask, cal.get(Calendar.DAY_OF_MONTH))) {
+                monthDayDates.add(date);
             }
         }
         return monthDayDates;
     }
 
-    private class LimitFilter implements Function<Date, Optional<Date>> {
-
-        @Override
-        public Optional<Date> apply(Date date) {
-            final Calendar cal = getCalendarInstance(date, true);
-            if (monthDayList.contains(cal.get(Calendar.DAY_OF_MONTH))) {
-                return Optional.of(date);
-            }
-            return Optional.empty();
-        }
-    }
-
-    private class ExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public ExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, false);
-            // construct a list of possible month days..
-            for (final int monthDay : monthDayList) {
-                if (monthDay == 0 || monthDay < -Dates.MAX_DAYS_PER_MONTH || monthDay > Dates.MAX_DAYS_PER_MONTH) {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Invalid day of month: " + monthDay);
-                    }
-                    continue;
-                }
-                final int numDaysInMonth = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-                if (monthDay > 0) {
-                    if (numDaysInMonth < monthDay) {
-                        continue;
-                    }
-                    cal.set(Calendar.DAY_OF_MONTH, monthDay);
-                } else {
-                    if (numDaysInMonth < -monthDay) {
-                        continue;
-                    }
-                    cal.set(Calendar.DAY_OF_MONTH, numDaysInMonth);
-                    cal.add(Calendar.DAY_OF_MONTH, monthDay + 1);
+    /**
+     * Adds a date for each valid day of month in the BYMONTHDAY list, retaining the time of day of the specified date.
+     *
+     * @param date the date to expand
+     * @param cal a calendar initialised with the date
+     * @param monthDayDates the list of expanded dates
+     */
+    private void expand(final Date date, final Calendar cal, final DateList monthDayDates) {
+        final LocalDate localDate = getLocalDate(cal);
+        final int numDaysInMonth = localDate.lengthOfMonth();
+        // construct a list of possible month days..
+        for (final int monthDay : monthDayList) {
+            if (monthDay == 0 || monthDay < -Dates.MAX_DAYS_PER_MONTH || monthDay > Dates.MAX_DAYS_PER_MONTH) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Invalid day of month: " + monthDay);
                 }
-                retVal.add(Dates.getInstance(getTime(date, cal), type));
-            };
-            return retVal;
+                continue;
+            }
+            if (Math.abs(monthDay) > numDaysInMonth) {
+                continue;
+            }
+            final int dayIndex = (monthDay > 0) ? monthDay : numDaysInMonth + monthDay + 1;
+            monthDayDates.add(getDate(date, localDate.withDayOfMonth(dayIndex), cal, monthDayDates.getType()));
         }
     }
 
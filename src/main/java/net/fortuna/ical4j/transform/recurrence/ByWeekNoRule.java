@@ -37,6 +37,7 @@ public class ByWeekNoRule extends AbstractDateExpansionRule {
         }
         final DateList weekNoDates = Dates.getDateListInstance(dates);
         Calendar initCal = getCalendarInstance(dates.get(0), true);
+        final Calendar cal = (Calendar) initCal.clone();
         for (final Date date : dates) {
             final int numWeeksInYear = initCal.getActualMaximum(Calendar.WEEK_OF_YEAR);
             for (final Integer weekNo : weekNoList) {
@@ -46,7 +47,7 @@ public class ByWeekNoRule extends AbstractDateExpansionRule {
                     }
                     continue;
                 }
-                final Calendar cal = getCalendarInstance(date, true);
+                cal.setTime(date);
                 if (weekNo > 0) {
                     if (numWeeksInYear < weekNo) {
                         continue;
@@ -2,17 +2,15 @@ package net.fortuna.ical4j.transform.recurrence;
 
 import net.fortuna.ical4j.model.*;
 import net.fortuna.ical4j.model.Recur.Frequency;
-import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.util.Dates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.BitSet;
 import java.util.Calendar;
-import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
 
 import static net.fortuna.ical4j.model.Recur.Frequency.YEARLY;
 
@@ -26,14 +24,20 @@ public class ByYearDayRule extends AbstractDateExpansionRule {
 
     private final NumberList yearDayList;
 
+    private final BitSet yearDayMask;
+
     public ByYearDayRule(NumberList yearDayList, Frequency frequency) {
         super(frequency);
         this.yearDayList = yearDayList;
+        this.yearDayMask = new BitSet(Dates.MAX_DAYS_PER_YEAR + 1);
+        yearDayList.stream().filter(yearDay -> yearDay > 0).forEach(yearDayMask::set);
     }
 
     public ByYearDayRule(NumberList yearDayList, Frequency frequency, Optional<WeekDay.Day> weekStartDay) {
         super(frequency, weekStartDay);
         this.yearDayList = yearDayList;
+        this.yearDayMask = new BitSet(Dates.MAX_DAYS_PER_YEAR + 1);
+        yearDayList.stream().filter(yearDay -> yearDay > 0).forEach(yearDayMask::set);
     }
 
     @Override
@@ -42,67 +46,44 @@ public class ByYearDayRule extends AbstractDateExpansionRule {
             return dates;
         }
         final DateList yearDayDates = Dates.getDateListInstance(dates);
+        if (dates.isEmpty()) {
+            return yearDayDates;
+        }
+        final Calendar cal = getCalendarInstance(dates.get(0), true);
         for (final Date date : dates) {
+            cal.setTime(date);
             if (getFrequency() == YEARLY) {
-                yearDayDates.addAll(new ExpansionFilter(yearDayDates.getType()).apply(date));
-            } else {
-                Optional<Date> limit = new LimitFilter().apply(date);
-                if (limit.isPresent()) {
-                    yearDayDates.add(limit.get());
-                }
+                expand(date, cal, yearDayDates);
+            } else if (yearDayMask.get(cal.get(Calendar.DAY_OF_YEAR))) {
+                yearDayDates.add(date);
             }
         }
         return yearDayDates;
     }
 
-    private class LimitFilter implements Function<Date, Optional<Date>> {
-
-        @Override
-        public Optional<Date> apply(Date date) {
-            final Calendar cal = getCalendarInstance(date, true);
-            if (yearDayList.contains(cal.get(Calendar.DAY_OF_YEAR))) {
-                return Optional.of(date);
-            }
-            return Optional.empty();
-        }
-    }
-
-    private class ExpansionFilter implements Function<Date, List<Date>> {
-
-        private final Value type;
-
-        public ExpansionFilter(Value type) {
-            this.type = type;
-        }
-
-        @Override
-        public List<Date> apply(Date date) {
-            List<Date> retVal = new ArrayList<>();
-            final Calendar cal = getCalendarInstance(date, false);
-            // construct a list of possible year days..
-            for (final int yearDay : yearDayList) {
-                if (yearDay == 0 || yearDay < -Dates.MAX_DAYS_PER_YEAR || yearDay > Dates.MAX_DAYS_PER_YEAR) {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Invalid day of year: " + yearDay);
-                    }
-                    continue;
-                }
-                final int numDaysInYear = cal.getActualMaximum(Calendar.DAY_OF_YEAR);
-                if (yearDay > 0) {
-                    if (numDaysInYear < yearDay) {
-                        continue;
-                    }
-                    cal.set(Calendar.DAY_OF_YEAR, yearDay);
-                } else {
-                    if (numDaysInYear < -yearDay) {
-                        continue;
-                    }
-                    cal.set(Calendar.DAY_OF_YEAR, numDaysInYear);
-                    cal.add(Calendar.DAY_OF_YEAR, yearDay + 1);
+    /**
+     * Adds a date for each valid day of year in the BYYEARDAY list, retaining the time of day of the specified date.
+     *
+     * @param date the date to expand
+     * @param cal a calendar initialised with the date
+     * @param yearDayDates the list of expanded dates
+     */
+    private void expand(final Date date, final Calendar cal, final DateList yearDayDates) {
+        final LocalDate localDate = getLocalDate(cal);
+        final int numDaysInYear = localDate.lengthOfYear();
+        // construct a list of possible year days..
+        for (final int yearDay : yearDayList) {
+            if (yearDay == 0 || yearDay < -Dates.MAX_DAYS_PER_YEAR || yearDay > Dates.MAX_DAYS_PER_YEAR) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Invalid day of year: " + yearDay);
                 }
-                retVal.add(Dates.getInstance(getTime(date, cal), type));
+                continue;
+            }
+            if (Math.abs(yearDay) > numDaysInYear) {
+                continue;
             }
-            return retVal;
+            final int dayIndex = (yearDay > 0) ? yearDay : numDaysInYear + yearDay + 1;
+            yearDayDates.add(getDate(date, localDate.withDayOfYear(dayIndex), cal, yearDayDates.getType()));
         }
     }
 
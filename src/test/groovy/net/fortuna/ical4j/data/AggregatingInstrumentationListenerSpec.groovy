@@ -0,0 +1,177 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.CalendarException
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
+import spock.lang.Specification
+
+import java.util.concurrent.ForkJoinPool
+
+import static net.fortuna.ical4j.data.InstrumentationListener.Phase.*
+
+class AggregatingInstrumentationListenerSpec extends Specification {
+
+    static final String CALENDAR = 'BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n' +
+            'BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n' +
+            'TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n' +
+            'BEGIN:VEVENT\r\nUID:1\r\nSUMMARY:A folded\r\n  summary\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\n' +
+            'END:VEVENT\r\nEND:VCALENDAR\r\n'
+
+    def 'verify parsing measurements'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [parser, new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'a calendar is parsed'
+        builder.build(new ByteArrayInputStream(CALENDAR.bytes))
+
+        then: 'each phase is measured'
+        listener.getCount(PARSE) == 1
+        listener.getCount(LEXING) == 1
+        listener.getCount(PROPERTY) == 9
+        listener.getCount(PARAMETER) == 1
+        listener.getCount(COMPONENT) == 3
+        listener.getCount(TIMEZONE_REGISTRATION) == 1
+        listener.getCount(TIMEZONE_RESOLUTION) == 1
+        listener.getHistogram(PARSE).sum() == 1
+
+        and: 'content is counted'
+        listener.getBytes(PARSE) == CALENDAR.bytes.length
+        listener.componentCounts == [STANDARD: 1L, VEVENT: 1L, VTIMEZONE: 1L]
+        listener.propertyCounts.VERSION == 1L
+        listener.propertyCounts.DTSTART == 2L
+
+        where:
+        parser << [new CalendarParserImpl(), new ContentLineParser()]
+    }
+
+    def 'verify lines unfolded are measured'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [parser, new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'a calendar is parsed'
+        builder.build(new StringReader(CALENDAR))
+
+        then: 'the folded line is counted'
+        listener.linesUnfolded == 1
+
+        where:
+        parser << [new CalendarParserImpl(), new ContentLineParser()]
+    }
+
+    def 'verify parallel parsing is measured'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [new ContentLineParser(), new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'a calendar is parsed in parallel'
+        builder.build(new ByteArrayInputStream(CALENDAR.bytes), ForkJoinPool.commonPool())
+
+        then: 'the parse is measured'
+        listener.getCount(PARSE) == 1
+        listener.getBytes(PARSE) == CALENDAR.bytes.length
+        listener.linesUnfolded == 1
+        listener.componentCounts == [STANDARD: 1L, VEVENT: 1L, VTIMEZONE: 1L]
+    }
+
+    def 'verify streamed parsing is measured'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [new ContentLineParser(), new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'a calendar is streamed'
+        long count = builder.stream(new ByteArrayInputStream(CALENDAR.bytes)).count()
+
+        then: 'the parse is measured'
+        count == 2
+        listener.getCount(PARSE) == 1
+        listener.getBytes(PARSE) == CALENDAR.bytes.length
+        listener.linesUnfolded == 1
+    }
+
+    def 'verify streamed parsing failures are measured'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [new ContentLineParser(), new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'an invalid calendar is streamed'
+        builder.stream(new StringReader(CALENDAR.replace('20200101T090000', 'invalid'))).count()
+
+        then: 'the failure is counted'
+        thrown(CalendarException)
+        listener.getFailures(PARSE) == 1
+        listener.getCount(PARSE) == 1
+    }
+
+    def 'verify distinct names counted are limited'() {
+        given: 'a listener'
+        AggregatingInstrumentationListener listener = []
+
+        when: 'more distinct names than the limit are reported'
+        (0..AggregatingInstrumentationListener.MAX_NAMES).each {
+            listener.property("X-PROPERTY-$it")
+            listener.component("X-COMPONENT-$it")
+        }
+        listener.property('X-PROPERTY-0')
+
+        then: 'names beyond the limit are counted as other'
+        listener.propertyCounts.size() == AggregatingInstrumentationListener.MAX_NAMES + 1
+        listener.propertyCounts[AggregatingInstrumentationListener.OTHER] == 1L
+        listener.propertyCounts['X-PROPERTY-0'] == 2L
+        listener.componentCounts.size() == AggregatingInstrumentationListener.MAX_NAMES + 1
+        listener.componentCounts[AggregatingInstrumentationListener.OTHER] == 1L
+    }
+
+    def 'verify failures are measured'() {
+        given: 'an instrumented calendar builder'
+        AggregatingInstrumentationListener listener = []
+        CalendarBuilder builder = [new CalendarParserImpl(), new ContentHandlerContext().withInstrumentation(listener),
+                                   TimeZoneRegistryFactory.instance.createRegistry()]
+
+        when: 'an invalid calendar is parsed'
+        builder.build(new StringReader(CALENDAR.replace('20200101T090000', 'invalid')))
+
+        then: 'the failure is counted'
+        thrown(ParserException)
+        listener.getFailures(PROPERTY) == 1
+        listener.getFailures(PARSE) == 1
+    }
+
+    def 'verify serialization measurements'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(new StringReader(CALENDAR))
+
+        and: 'an instrumented outputter'
+        AggregatingInstrumentationListener listener = []
+        CalendarOutputter outputter = [false]
+        outputter.instrumentation = listener
+
+        when: 'the calendar is output'
+        ByteArrayOutputStream out = []
+        outputter.output(calendar, out)
+
+        then: 'serialization is measured'
+        listener.getCount(SERIALIZE) == 1
+        listener.getBytes(SERIALIZE) == out.size()
+    }
+
+    def 'verify histogram buckets'() {
+        expect:
+        AggregatingInstrumentationListener.bucket(nanos) == bucket
+
+        where:
+        nanos          | bucket
+        0              | 0
+        1              | 1
+        2              | 2
+        3              | 2
+        1024           | 11
+        Long.MAX_VALUE | 63
+    }
+}
@@ -0,0 +1,119 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Parameter
+import net.fortuna.ical4j.model.ParameterList
+import net.fortuna.ical4j.model.parameter.Cn
+import net.fortuna.ical4j.model.property.Description
+import net.fortuna.ical4j.model.property.Organizer
+import net.fortuna.ical4j.model.property.immutable.ImmutableCalScale
+import net.fortuna.ical4j.model.property.immutable.ImmutableVersion
+import spock.lang.Specification
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class ByteSinkSpec extends Specification {
+
+    def 'verify properties are written in string form'() {
+        given: 'a byte sink'
+        ByteArrayOutputStream out = []
+        ByteSink sink = [out, FoldingWriter.MAX_FOLD_LENGTH]
+
+        when: 'a property is written'
+        property.writeTo(sink)
+        sink.flush()
+
+        then: 'the output matches the property string'
+        new String(out.toByteArray(), StandardCharsets.UTF_8) == property as String
+
+        where:
+        property << [
+                new Description('Meeting; bring notes,\nslides and a "laptop" \\ charger'),
+                new Organizer(parameters(new Cn('Doe, ^John "JD"\n')), 'mailto:jdoe@example.com'),
+                new Organizer(parameters(new Cn('Jöhn')), 'mailto:john@example.com'),
+        ]
+    }
+
+    def 'verify multi-byte text is folded as per the folding writer'() {
+        given: 'a long multi-byte value'
+        String value = 'SUMMARY:' + ('é€😀' * 50) + '\r\n'
+
+        and: 'the value folded by a folding writer'
+        StringWriter expected = []
+        new FoldingWriter(expected, FoldingWriter.MAX_FOLD_LENGTH).withCloseable {
+            it.write(value)
+        }
+
+        when: 'the value is written to a byte buffer'
+        ByteBuffer buffer = ByteBuffer.allocate(1024)
+        new ByteSink(buffer, FoldingWriter.MAX_FOLD_LENGTH).withCloseable {
+            it.append(value)
+        }
+
+        then: 'the output is identical'
+        new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8) == expected as String
+    }
+
+    def 'verify overflow of a byte buffer'() {
+        given: 'a byte sink with insufficient space'
+        ByteSink sink = [ByteBuffer.allocate(4), FoldingWriter.MAX_FOLD_LENGTH]
+
+        when: 'content is written'
+        sink.append('VERSION:2.0').endLine().flush()
+
+        then: 'an exception is thrown'
+        thrown(BufferOverflowException)
+    }
+
+    def 'verify immutable properties are written in string form'() {
+        given: 'a byte sink'
+        ByteArrayOutputStream out = []
+        ByteSink sink = [out, FoldingWriter.REDUCED_FOLD_LENGTH]
+
+        and: 'the property string folded as per the outputter'
+        StringWriter expected = []
+        new FoldingWriter(expected, FoldingWriter.REDUCED_FOLD_LENGTH).withCloseable {
+            it.write(property as String)
+            it.write(property as String)
+        }
+
+        when: 'an immutable property is written more than once'
+        property.writeTo(sink)
+        property.writeTo(sink)
+        sink.flush()
+
+        then: 'the output matches the folded property string'
+        new String(out.toByteArray(), StandardCharsets.UTF_8) == expected as String
+
+        where:
+        property << [ImmutableVersion.VERSION_2_0, ImmutableCalScale.GREGORIAN,
+                     new ImmutableVersion('2.0' * 24), new ImmutableVersion('2.0' * 30)]
+    }
+
+    def 'verify encoded lines are only appended at the start of a line'() {
+        given: 'a byte sink'
+        ByteArrayOutputStream out = []
+        ByteSink sink = [out, FoldingWriter.MAX_FOLD_LENGTH]
+
+        expect: 'encoded lines are rejected part way through a line'
+        sink.appendLine('VERSION:2.0\r\n'.bytes)
+        !sink.append('X').appendLine('VERSION:2.0\r\n'.bytes)
+        sink.endLine().appendLine('VERSION:2.0\r\n'.bytes)
+
+        and: 'encoded lines requiring folding are rejected'
+        !sink.appendLine(('X' * 75 + '\r\n').bytes)
+
+        when: 'the sink is flushed'
+        sink.flush()
+
+        then: 'only accepted lines are written'
+        new String(out.toByteArray(), StandardCharsets.UTF_8) == 'VERSION:2.0\r\nX\r\nVERSION:2.0\r\n'
+    }
+
+    private static ParameterList parameters(Parameter... parameters) {
+        ParameterList list = []
+        parameters.each { list.add(it) }
+        list
+    }
+}
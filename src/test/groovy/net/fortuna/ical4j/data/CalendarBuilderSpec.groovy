@@ -1,10 +1,18 @@
 package net.fortuna.ical4j.data
 
 import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.CalendarException
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
 import net.fortuna.ical4j.util.CompatibilityHints
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import java.nio.charset.Charset
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.ForkJoinPool
+import java.util.stream.Collectors
 
 /**
  * Created by fortuna on 4/07/2016.
@@ -54,4 +62,160 @@ class CalendarBuilderSpec extends Specification {
         then: 'expect thrown exception'
         thrown(ParserException)
     }
+
+    def 'test streaming components'() {
+        given: 'a calendar with timezone and events'
+        String ics = getClass().getResource('/samples/valid/Australian_TV_Melbourne.ics').text
+
+        when: 'the calendar is built and streamed'
+        Calendar calendar = new CalendarBuilder().build(new StringReader(ics))
+        List components = new CalendarBuilder().stream(new StringReader(ics)).collect(Collectors.toList())
+
+        then: 'the streamed components match the built components'
+        components == calendar.components
+    }
+
+    def 'test streaming resolves preceding timezones'() {
+        given: 'a calendar with a timezone definition'
+        String ics = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+                "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+                "BEGIN:VEVENT\r\nUID:1\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\nEND:VEVENT\r\n" +
+                "END:VCALENDAR\r\n"
+
+        when: 'components are streamed'
+        CalendarBuilder builder = new CalendarBuilder()
+        List components = builder.stream(new StringReader(ics)).collect(Collectors.toList())
+
+        then: 'the timezone is registered and applied to the following event'
+        components.collect { it.name } == ['VTIMEZONE', 'VEVENT']
+        components[1].startDate.timeZone == builder.registry.getTimeZone('Test/Zone')
+    }
+
+    def 'test streaming is lazy'() {
+        given: 'a calendar that is truncated after the first event'
+        String ics = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:1\r\nEND:VEVENT\r\nBEGIN:VEVENT\r\nUID:2\r\n"
+
+        when: 'the first component is requested'
+        Iterator iterator = new CalendarBuilder().stream(new StringReader(ics)).iterator()
+        def first = iterator.next()
+
+        then: 'it is returned without parsing the remaining data'
+        first.getProperty('UID').value == '1'
+
+        when: 'the next component is requested'
+        iterator.hasNext()
+
+        then: 'the parse error is thrown'
+        thrown(CalendarException)
+    }
+
+    def 'test build from file'() {
+        given: 'a calendar file'
+        Path path = Paths.get(getClass().getResource('/samples/valid/Australian_TV_Melbourne.ics').toURI())
+        Calendar expected = new CalendarBuilder().build(Files.newBufferedReader(path))
+
+        expect: 'the calendar built from the file is the same as when built from a reader'
+        new CalendarBuilder(parser).build(path) == expected
+
+        where: 'the file is mapped in windows of varying size'
+        parser << [new ContentLineParser(8192, 7), new ContentLineParser(8192, 8192), new ContentLineParser(),
+                   new CalendarParserImpl()]
+    }
+
+    def 'test streaming components from file'() {
+        given: 'a calendar file'
+        Path path = Paths.get(getClass().getResource('/samples/valid/Australian_TV_Melbourne.ics').toURI())
+        Calendar calendar = new CalendarBuilder().build(Files.newBufferedReader(path))
+
+        when: 'the file is streamed'
+        List components = new CalendarBuilder(new ContentLineParser(8192, 100)).stream(path).withCloseable {
+            it.collect(Collectors.toList())
+        }
+
+        then: 'the streamed components match the built components'
+        components == calendar.components
+    }
+
+    def 'test parallel build'() {
+        given: 'a calendar with a timezone defined after the events that reference it'
+        String ics = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                (1..200).collect { "BEGIN:VEVENT\r\nUID:$it\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\n" +
+                        "BEGIN:VALARM\r\nACTION:DISPLAY\r\nTRIGGER:-PT15M\r\nEND:VALARM\r\nEND:VEVENT\r\n" }.join() +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+                "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+                "METHOD:PUBLISH\r\nEND:VCALENDAR\r\n"
+
+        and: 'a pool'
+        ForkJoinPool pool = new ForkJoinPool(4)
+
+        when: 'the calendar is built sequentially and in parallel'
+        Calendar expected = new CalendarBuilder(new ContentLineParser()).build(new StringReader(ics))
+        CalendarBuilder builder = new CalendarBuilder()
+        Calendar calendar = builder.build(new StringReader(ics), pool)
+
+        then: 'the result is the same'
+        calendar == expected
+        calendar.components.collect { it.getProperty('UID')?.value } == (1..200).collect { "$it" } + [null]
+
+        and: 'timezones are resolved'
+        calendar.components[0].startDate.timeZone == builder.registry.getTimeZone('Test/Zone')
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    @Unroll
+    def 'test parallel build with projection of #count components'() {
+        given: 'a calendar with a timezone defined after the events that reference it'
+        String ics = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                (1..200).collect { "BEGIN:VEVENT\r\nUID:$it\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\n" +
+                        "BEGIN:VALARM\r\nACTION:DISPLAY\r\nTRIGGER:-PT15M\r\nEND:VALARM\r\nEND:VEVENT\r\n" }.join() +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+                "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+                "END:VCALENDAR\r\n"
+
+        and: 'a pool'
+        ForkJoinPool pool = new ForkJoinPool(4)
+
+        when: 'the calendar is built sequentially and in parallel with a projection'
+        ContentHandlerContext context = new ContentHandlerContext().withProjection(projection)
+        Calendar expected = new CalendarBuilder(new ContentLineParser(), context,
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ics))
+        Calendar calendar = new CalendarBuilder(new ContentLineParser(), context,
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ics), pool)
+
+        then: 'the result is the same'
+        calendar == expected
+        calendar.components.size() == count
+
+        cleanup:
+        pool.shutdown()
+
+        where:
+        projection                                                                          | count
+        new ContentProjection().withComponentNames('VEVENT')                                | 200
+        new ContentProjection().withLimit(3)                                                | 4
+        new ContentProjection().withLimit(150)                                              | 151
+        new ContentProjection().withComponentNames('VTIMEZONE', 'STANDARD').withLimit(1)    | 1
+        new ContentProjection().withComponentNames('VEVENT', 'VTIMEZONE', 'STANDARD')
+                .withLimit(2)                                                               | 3
+        new ContentProjection().withComponentNames('VEVENT').withLimit(2)                   | 2
+        new ContentProjection().withComponentNames('VEVENT', 'VTIMEZONE', 'STANDARD')
+                .withPropertyNames('VEVENT', 'UID')                                         | 201
+    }
+
+    def 'test parallel build error line number'() {
+        given: 'a calendar with an invalid property'
+        String ics = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\n" +
+                (1..100).collect { "BEGIN:VEVENT\r\nUID:$it\r\nEND:VEVENT\r\n" }.join() +
+                "BEGIN:VEVENT\r\nUID:101\r\nDTSTART:2020\r\n 0101\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+
+        when: 'the calendar is built in parallel'
+        new CalendarBuilder().build(new StringReader(ics), ForkJoinPool.commonPool())
+
+        then: 'the source line number is reported'
+        ParserException e = thrown()
+        e.lineNo == 306
+    }
 }
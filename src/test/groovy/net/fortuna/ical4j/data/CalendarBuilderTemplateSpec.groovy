@@ -0,0 +1,57 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class CalendarBuilderTemplateSpec extends Specification {
+
+    static String calendar(String uid, String offset) {
+        "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+                "TZOFFSETFROM:$offset\r\nTZOFFSETTO:$offset\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+                "BEGIN:VEVENT\r\nUID:$uid\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\nEND:VEVENT\r\n" +
+                "END:VCALENDAR\r\n"
+    }
+
+    def 'verify timezone definitions are isolated to each parse'() {
+        given: 'a template'
+        CalendarBuilderTemplate template = new CalendarBuilderTemplate({ new ContentLineParser() },
+                new ContentHandlerContext(), TimeZoneRegistryFactory.instance.createRegistry())
+
+        when: 'calendars with conflicting timezone definitions are parsed'
+        Calendar first = template.build(new StringReader(calendar('1', '+0100')))
+        Calendar second = template.build(new StringReader(calendar('2', '+0500')))
+
+        then: 'each calendar resolves its own definition'
+        first.components[1].startDate.date.time - second.components[1].startDate.date.time == 4 * 60 * 60 * 1000
+
+        and: 'the shared registry is not modified'
+        template.registry.getTimeZone('Test/Zone') == null
+    }
+
+    def 'verify concurrent parsing'() {
+        given: 'a template'
+        CalendarBuilderTemplate template = new CalendarBuilderTemplate()
+
+        and: 'a calendar parsed with a builder'
+        String ics = getClass().getResource('/samples/valid/Australian_TV_Melbourne.ics').text
+        String expected = new CalendarBuilder().build(new StringReader(ics)) as String
+
+        when: 'the calendar is parsed concurrently'
+        ExecutorService executor = Executors.newFixedThreadPool(4)
+        List results = executor.invokeAll((1..16).collect {
+            { -> template.build(new StringReader(ics)) as String } as Callable<String>
+        })*.get()
+
+        then: 'the results are the same'
+        results.every { it == expected }
+
+        cleanup:
+        executor?.shutdown()
+    }
+}
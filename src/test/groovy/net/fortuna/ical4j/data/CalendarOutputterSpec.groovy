@@ -0,0 +1,83 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+
+class CalendarOutputterSpec extends Specification {
+
+    def 'verify output is the same as the calendar string'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(getClass().getResourceAsStream(resource))
+
+        and: 'the calendar string folded as per the outputter'
+        StringWriter expected = []
+        new FoldingWriter(expected, FoldingWriter.REDUCED_FOLD_LENGTH).withCloseable {
+            it.write(calendar as String)
+        }
+
+        when: 'the calendar is output'
+        StringWriter out = []
+        new CalendarOutputter(false).output(calendar, out)
+
+        then: 'the output is identical'
+        out as String == expected as String
+
+        where:
+        resource << ['/samples/valid/Australian_TV_Melbourne.ics', '/samples/valid/bhav23-1.ics',
+                     '/samples/valid/evolution.ics', '/samples/valid/korganizer.ics', '/samples/valid/lotr.ics']
+    }
+
+    def 'verify output stream is the same as the encoded calendar string'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(getClass().getResourceAsStream(resource))
+
+        and: 'the calendar string folded as per the outputter'
+        StringWriter expected = []
+        new FoldingWriter(expected, FoldingWriter.REDUCED_FOLD_LENGTH).withCloseable {
+            it.write(calendar as String)
+        }
+
+        when: 'the calendar is output to a stream'
+        ByteArrayOutputStream out = []
+        new CalendarOutputter(false).output(calendar, out)
+
+        then: 'the output is identical'
+        out.toByteArray() == (expected as String).getBytes('UTF-8')
+
+        where:
+        resource << ['/samples/valid/Australian_TV_Melbourne.ics', '/samples/valid/bhav23-1.ics',
+                     '/samples/valid/evolution.ics', '/samples/valid/korganizer.ics', '/samples/valid/lotr.ics']
+    }
+
+    def 'verify parallel output is the same as sequential output'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(getClass().getResourceAsStream(resource))
+
+        and: 'the sequential output'
+        ByteArrayOutputStream expected = []
+        new CalendarOutputter(false).output(calendar, expected)
+
+        and: 'an outputter with an executor'
+        CalendarOutputter outputter = new CalendarOutputter(false)
+        outputter.executor = executor
+
+        when: 'the calendar is output in parallel'
+        ByteArrayOutputStream out = []
+        outputter.output(calendar, out)
+
+        then: 'the output is identical'
+        out.toByteArray() == expected.toByteArray()
+
+        cleanup:
+        executor.shutdown()
+
+        where:
+        resource                                 | executor
+        '/samples/valid/mathBirthdays.ics'       | Executors.newFixedThreadPool(4)
+        '/samples/valid/Misc.History.ics'        | new ForkJoinPool(2)
+        '/samples/valid/lotr.ics'                | Executors.newSingleThreadExecutor()
+    }
+}
@@ -0,0 +1,107 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.ComponentList
+import net.fortuna.ical4j.model.component.VEvent
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class CalendarStreamWriterSpec extends Specification {
+
+    def 'verify streamed output is the same as the outputter'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(getClass().getResourceAsStream(resource))
+
+        and: 'the outputter output'
+        ByteArrayOutputStream expected = []
+        new CalendarOutputter(false).output(calendar, expected)
+
+        when: 'the calendar is streamed one component at a time'
+        ByteArrayOutputStream out = []
+        new CalendarStreamWriter(out, false).withCloseable { writer ->
+            writer.open(calendar.properties)
+            calendar.components.each { writer.write(it) }
+        }
+
+        then: 'the output is identical'
+        out.toByteArray() == expected.toByteArray()
+
+        where:
+        resource << ['/samples/valid/Australian_TV_Melbourne.ics', '/samples/valid/lotr.ics']
+    }
+
+    def 'verify components are appended to an existing file'() {
+        given: 'a calendar'
+        Calendar calendar = new CalendarBuilder().build(getClass().getResourceAsStream(resource))
+
+        and: 'the outputter output'
+        ByteArrayOutputStream expected = []
+        new CalendarOutputter(false).output(calendar, expected)
+
+        and: 'a file containing all but the last component'
+        Path file = Files.createTempFile('append', '.ics')
+        Calendar initial = new Calendar(calendar.properties,
+                new ComponentList<>(calendar.components.subList(0, calendar.components.size() - 1)))
+        Files.newOutputStream(file).withCloseable { new CalendarOutputter(false).output(initial, it) }
+
+        when: 'the last component is appended'
+        CalendarStreamWriter.append(file, false).withCloseable {
+            it.write(calendar.components[-1])
+        }
+
+        then: 'the file is the same as the outputter output'
+        Files.readAllBytes(file) == expected.toByteArray()
+
+        cleanup:
+        Files.deleteIfExists(file)
+
+        where:
+        resource << ['/samples/valid/Australian_TV_Melbourne.ics', '/samples/valid/lotr.ics']
+    }
+
+    def 'verify append without writing components leaves the file unchanged'() {
+        given: 'a calendar file with a trailing end of calendar'
+        Path file = Files.createTempFile('append', '.ics')
+        file.toFile().text = 'BEGIN:VCALENDAR\nVERSION:2.0\nEND:VCALENDAR\n\n'
+
+        when: 'the file is opened for appending and closed'
+        CalendarStreamWriter.append(file).close()
+
+        then: 'the file is unchanged'
+        file.toFile().text == 'BEGIN:VCALENDAR\nVERSION:2.0\nEND:VCALENDAR\n\n'
+
+        cleanup:
+        Files.deleteIfExists(file)
+    }
+
+    def 'verify append to a file without a trailing end of calendar'() {
+        given: 'a truncated calendar file'
+        Path file = Files.createTempFile('append', '.ics')
+        file.toFile().text = 'BEGIN:VCALENDAR\r\nVERSION:2.0\r\n'
+
+        when: 'the file is opened for appending'
+        CalendarStreamWriter.append(file)
+
+        then: 'an exception is thrown'
+        thrown(IOException)
+
+        and: 'the file is unchanged'
+        file.toFile().text == 'BEGIN:VCALENDAR\r\nVERSION:2.0\r\n'
+
+        cleanup:
+        Files.deleteIfExists(file)
+    }
+
+    def 'verify components cannot be written before the calendar is opened'() {
+        given: 'a stream writer'
+        CalendarStreamWriter writer = [new ByteArrayOutputStream(), false]
+
+        when: 'a component is written'
+        writer.write(new VEvent())
+
+        then: 'an exception is thrown'
+        thrown(IllegalStateException)
+    }
+}
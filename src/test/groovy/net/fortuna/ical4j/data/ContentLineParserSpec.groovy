@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
+import net.fortuna.ical4j.util.CompatibilityHints
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+import static net.fortuna.ical4j.util.CompatibilityHints.KEY_RELAXED_PARSING
+import static net.fortuna.ical4j.util.CompatibilityHints.KEY_RELAXED_UNFOLDING
+
+class ContentLineParserSpec extends Specification {
+
+    CalendarBuilder builder = new CalendarBuilder(new ContentLineParser())
+
+    def cleanup() {
+        CompatibilityHints.clearHintEnabled(KEY_RELAXED_UNFOLDING)
+        CompatibilityHints.clearHintEnabled(KEY_RELAXED_PARSING)
+    }
+
+    def 'verify parsing is consistent with the default parser'() {
+        setup:
+        compatibilityHints.each {
+            CompatibilityHints.setHintEnabled(it, true)
+        }
+
+        expect:
+        Calendar expected = ContentLineParserSpec.getResourceAsStream(resource).withStream {
+            new CalendarBuilder(new CalendarParserImpl()).build(it)
+        }
+        Calendar calendar = ContentLineParserSpec.getResourceAsStream(resource).withStream {
+            builder.build(it)
+        }
+        calendar as String == expected as String
+
+        where:
+        resource                                  | compatibilityHints
+        '/samples/valid/bhav23-1.ics'             | []
+        '/samples/valid/blankTzid.ics'            | []
+        '/samples/valid/Australian32Holidays.ics' | []
+        '/samples/valid/evolution.ics'            | []
+        '/samples/valid/korganizer.ics'           | []
+        '/samples/valid/lotr.ics'                 | []
+        '/samples/valid/Earth32Seasons.ics'       | [KEY_RELAXED_UNFOLDING, KEY_RELAXED_PARSING]
+        '/samples/invalid/0.ics'                  | [KEY_RELAXED_UNFOLDING, KEY_RELAXED_PARSING]
+    }
+
+    def 'verify parser exception line numbers'() {
+        setup:
+        CompatibilityHints.setHintEnabled(KEY_RELAXED_UNFOLDING, true)
+
+        when:
+        ContentLineParserSpec.getResourceAsStream(resource).withStream {
+            builder.build(it)
+        }
+
+        then:
+        ParserException pe = thrown()
+        pe.lineNo == expectedLineNo
+
+        where:
+        resource                                    | expectedLineNo
+        '/samples/invalid/google_aus_holidays.ics'  | 11
+        '/samples/invalid/13-MoonPhase.ics'         | 215
+        '/samples/invalid/CalendarDataFile.ics'     | 25
+        '/samples/invalid/overlaps.ics'             | 1
+        '/samples/invalid/schedule-unstable.ics'    | 196
+        '/samples/invalid/smallcluster.ics'         | 12
+        '/samples/invalid/twinkle.ics'              | 67
+        '/samples/invalid/zidestoreical4jbomb.ics'  | 10
+    }
+
+    def 'verify parser exceptions are consistent with the default parser'() {
+        setup:
+        compatibilityHints.each {
+            CompatibilityHints.setHintEnabled(it, true)
+        }
+
+        when: 'the calendar is parsed by the default parser'
+        ContentLineParserSpec.getResourceAsStream(resource).withStream {
+            new CalendarBuilder(new CalendarParserImpl()).build(it)
+        }
+
+        then:
+        ParserException expected = thrown()
+
+        when: 'the calendar is parsed by the content line parser'
+        ContentLineParserSpec.getResourceAsStream(resource).withStream {
+            builder.build(it)
+        }
+
+        then: 'the same error is reported at the same line'
+        ParserException pe = thrown()
+        pe.message == expected.message
+        pe.lineNo == expectedLineNo
+
+        where:
+        resource                                   | compatibilityHints      | expectedLineNo
+        '/samples/invalid/bhav23-2.ics'            | []                      | 12
+        '/samples/invalid/bhav23-2.ics'            | [KEY_RELAXED_UNFOLDING] | 17
+        '/samples/invalid/smallcluster.ics'        | []                      | 7
+        '/samples/valid/calconnect2.ics'           | [KEY_RELAXED_UNFOLDING] | 29
+        '/samples/valid/korganizer_sample.ics'     | [KEY_RELAXED_PARSING]   | 8
+        '/samples/valid/rfc5545-sec3.6.3.ics'      | []                      | 11
+    }
+
+    def 'verify parsing of folded content lines'() {
+        given: 'a calendar with folded content lines'
+        String input = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n$contentLines\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+
+        expect: 'the parser unfolds the content lines without an unfolding reader'
+        Calendar calendar = builder.build(new StringReader(input))
+        calendar.components[0].properties[0] as String == expectedProperty
+
+        and: 'the result is the same when an unfolding reader is used'
+        Calendar unfolded = builder.build(new UnfoldingReader(new StringReader(input)))
+        unfolded.components[0].properties[0] as String == expectedProperty
+
+        where:
+        contentLines                                                        | expectedProperty
+        'SUMMARY:Folded\r\n  summary'                                       | 'SUMMARY:Folded summary\r\n'
+        'SUMMARY:Double\r\n \r\n  fold'                                     | 'SUMMARY:Double fold\r\n'
+        'ATTENDEE;ROLE=CHAIR;PARTSTAT=ACCEPTED;CN="participant";\r\n RSVP=FALSE:mailto:participant@somewhere.com' | 'ATTENDEE;ROLE=CHAIR;PARTSTAT=ACCEPTED;CN=participant;RSVP=FALSE:mailto:participant@somewhere.com\r\n'
+        'DESCRIPTION:a:b;c=d'                                               | 'DESCRIPTION:a:b\\;c=d\r\n'
+    }
+
+    def 'verify parsing of UTF-8 encoded bytes'() {
+        given: 'a calendar with a multi-byte character split by a fold'
+        String octets = new String("SUMMARY:caf\u00e9 cr\u00e8me".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1)
+        String folded = octets.replace('\u00c3\u00a9', '\u00c3\r\n \u00a9')
+        byte[] input = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n$folded\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+                .getBytes(StandardCharsets.ISO_8859_1)
+
+        expect: 'the content line is decoded after unfolding'
+        Calendar calendar = new CalendarBuilder(new ContentLineParser(bufferSize)).build(new ByteArrayInputStream(input))
+        calendar.components[0].properties[0] as String == 'SUMMARY:caf\u00e9 cr\u00e8me\r\n'
+
+        and: 'the result is the same when parsing from a direct buffer'
+        ByteBuffer buffer = ByteBuffer.allocateDirect(input.size())
+        buffer.put(input).flip()
+        Calendar fromBuffer
+        new ContentLineParser().parse(buffer, new DefaultContentHandler({ fromBuffer = it },
+                TimeZoneRegistryFactory.instance.createRegistry()))
+        fromBuffer as String == calendar as String
+
+        where:
+        bufferSize << [1, 7, 8192]
+    }
+
+    def 'verify parsing of pushed data'() {
+        given: 'calendar data split into chunks'
+        byte[] data = ContentLineParserSpec.getResourceAsStream(resource).bytes
+        List<ByteBuffer> chunks = (0..<data.length).step(chunkSize).collect {
+            ByteBuffer.wrap(data, it, Math.min(chunkSize, data.length - it))
+        }
+
+        expect: 'the calendar parsed from the chunks is the same as when parsed from a stream'
+        Calendar expected = builder.build(new ByteArrayInputStream(data))
+        Calendar calendar
+        ContentLineParser.PushParser parser = new ContentLineParser(16).push(new DefaultContentHandler(
+                { calendar = it }, TimeZoneRegistryFactory.instance.createRegistry()))
+        chunks.each { parser.feed(it) }
+        parser.endOfInput()
+        parser.finished
+        calendar as String == expected as String
+
+        where:
+        resource                                  | chunkSize
+        '/samples/valid/Australian32Holidays.ics' | 1
+        '/samples/valid/Australian32Holidays.ics' | 7
+        '/samples/valid/Australian32Holidays.ics' | 8192
+        '/samples/valid/evolution.ics'            | 3
+        '/samples/valid/korganizer.ics'           | 5
+        '/samples/valid/lotr.ics'                 | 64
+    }
+
+    def 'verify parsing of pushed UTF-8 encoded bytes'() {
+        given: 'a calendar with a multi-byte character split by a fold'
+        String octets = new String("SUMMARY:caf\u00e9 cr\u00e8me".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1)
+        String folded = octets.replace('\u00c3\u00a9', '\u00c3\r\n \u00a9')
+        byte[] input = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n$folded\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+                .getBytes(StandardCharsets.ISO_8859_1)
+
+        when: 'the data is pushed one byte at a time'
+        Calendar calendar
+        ContentLineParser.PushParser parser = new ContentLineParser().push(new DefaultContentHandler(
+                { calendar = it }, TimeZoneRegistryFactory.instance.createRegistry()))
+        input.each { parser.feed(ByteBuffer.wrap([it] as byte[])) }
+
+        then: 'the calendar is complete once the end of input is known'
+        calendar == null
+
+        when: 'the end of input is reached'
+        parser.endOfInput()
+
+        then: 'the content line is decoded after unfolding'
+        calendar.components[0].properties[0] as String == 'SUMMARY:caf\u00e9 cr\u00e8me\r\n'
+    }
+
+    def 'verify pushed data ending before the end of a calendar'() {
+        given: 'a push parser fed with incomplete calendar data'
+        ContentLineParser.PushParser parser = new ContentLineParser().push(new DefaultContentHandler(
+                {}, TimeZoneRegistryFactory.instance.createRegistry()))
+        parser.feed(ByteBuffer.wrap("BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nSUMMARY:test\r".bytes))
+        parser.feed(ByteBuffer.wrap("\n".bytes))
+
+        when: 'the end of input is reached'
+        parser.endOfInput()
+
+        then: 'an exception is thrown'
+        ParserException pe = thrown()
+        pe.message == 'Error at line 4:Unexpected end of file'
+    }
+
+    def 'verify parsing of parameter value lists'() {
+        given: 'a content handler that records parameters'
+        def parameters = []
+        ContentHandler handler = [startCalendar: {}, endCalendar: {}, startComponent: {}, endComponent: {},
+                                  startProperty: {}, propertyValue: {}, endProperty: {},
+                                  parameter: { name, value -> parameters << [name, value] }] as ContentHandler
+
+        when: 'a property with a multi-valued parameter is parsed'
+        new ContentLineParser().parse(new StringReader(
+                "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n$contentLine\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"), handler)
+
+        then: 'the complete parameter value list is reported'
+        parameters == expectedParameters
+
+        where:
+        contentLine                                                         | expectedParameters
+        'ATTENDEE;DELEGATED-TO="mailto:a@example.com","mailto:b@example.com":mailto:c@example.com' | [['DELEGATED-TO', '"mailto:a@example.com","mailto:b@example.com"']]
+        'ATTENDEE;ROLE=CHAIR;X-LIST=a,"b",c:mailto:c@example.com'            | [['ROLE', 'CHAIR'], ['X-LIST', 'a,"b",c']]
+        'X-PROP;X-PARAM="a;b:c":value'                                      | [['X-PARAM', '"a;b:c"']]
+    }
+
+    def 'verify relaxed parsing of content lines without a name'() {
+        given: 'a content line without a name'
+        String input = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n:\r\nSUMMARY:test\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+
+        when: 'relaxed parsing is not enabled'
+        builder.build(new StringReader(input))
+
+        then: 'an exception is thrown'
+        ParserException pe = thrown()
+        pe.lineNo == 3
+
+        when: 'relaxed parsing is enabled'
+        CompatibilityHints.setHintEnabled(KEY_RELAXED_PARSING, true)
+        Calendar calendar = builder.build(new StringReader(input))
+
+        then: 'the content line is ignored'
+        calendar.components[0].properties.size() == 1
+        calendar.components[0].properties[0] as String == 'SUMMARY:test\r\n'
+    }
+
+    def 'verify unexpected end of file'() {
+        when: 'parsing incomplete calendar data'
+        builder.build(new StringReader("BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nSUMMARY:test\r\n"))
+
+        then: 'an exception is thrown'
+        ParserException pe = thrown()
+        pe.message == 'Error at line 4:Unexpected end of file'
+    }
+
+    def 'verify parser factory'() {
+        expect:
+        new ContentLineParserFactory().get() instanceof ContentLineParser
+    }
+}
@@ -0,0 +1,134 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
+import spock.lang.Specification
+
+class ContentProjectionSpec extends Specification {
+
+    static final String ICS = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+            "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+            "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+            "BEGIN:VEVENT\r\nUID:1\r\nSUMMARY:One\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\n" +
+            "BEGIN:VALARM\r\nACTION:DISPLAY\r\nTRIGGER:-PT15M\r\nEND:VALARM\r\nEND:VEVENT\r\n" +
+            "BEGIN:VTODO\r\nUID:2\r\nEND:VTODO\r\n" +
+            "BEGIN:VEVENT\r\nUID:3\r\nSUMMARY:Three\r\nDTSTART;TZID=Test/Zone:20200102T090000\r\nEND:VEVENT\r\n" +
+            "END:VCALENDAR\r\n"
+
+    def 'verify component and property projection'() {
+        given: 'a projection of event start dates'
+        ContentProjection projection = new ContentProjection()
+                .withComponentNames('VEVENT', 'vtimezone', 'STANDARD', 'DAYLIGHT')
+                .withPropertyNames('VEVENT', 'DTSTART')
+                .withPropertyNames('VCALENDAR', 'PRODID')
+
+        when: 'a calendar is built with the projection'
+        CalendarBuilder builder = new CalendarBuilder(parser, new ContentHandlerContext().withProjection(projection),
+                TimeZoneRegistryFactory.instance.createRegistry())
+        Calendar calendar = builder.build(new StringReader(ICS))
+
+        then: 'only the projected content is included'
+        calendar.properties.collect { it.name } == ['PRODID']
+        calendar.components.collect { it.name } == ['VTIMEZONE', 'VEVENT', 'VEVENT']
+        calendar.components[1].properties.collect { it.name } == ['DTSTART']
+        calendar.components[1].components.isEmpty()
+
+        and: 'components without a property projection include all properties'
+        calendar.components[0].properties.collect { it.name } == ['TZID']
+        calendar.components[0].components[0].properties.size() == 3
+
+        and: 'timezones are resolved'
+        calendar.components[2].startDate.timeZone == builder.registry.getTimeZone('Test/Zone')
+
+        where:
+        parser << [new ContentLineParser(), new CalendarParserImpl()]
+    }
+
+    def 'verify projection limit'() {
+        given: 'a projection limited to one event'
+        ContentProjection projection = new ContentProjection().withComponentNames('VEVENT').withLimit(1)
+
+        when: 'a calendar is built with the projection'
+        Calendar calendar = new CalendarBuilder(parser, new ContentHandlerContext().withProjection(projection),
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ICS))
+
+        then: 'only the first event is included'
+        calendar.components.collect { it.getProperty('UID').value } == ['1']
+
+        where:
+        parser << [new ContentLineParser(), new CalendarParserImpl()]
+    }
+
+    def 'verify projection limit counts components other than timezones'() {
+        when: 'a calendar is built with a projection limited to one component'
+        Calendar calendar = new CalendarBuilder(parser, new ContentHandlerContext().withProjection(projection),
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ICS))
+
+        then: 'the preceding timezone is not counted towards the limit'
+        calendar.components.collect { it.name } == ['VTIMEZONE', 'VEVENT']
+
+        and: 'timezones are resolved'
+        calendar.components[1].startDate.timeZone.ID == 'Test/Zone'
+
+        where:
+        [parser, projection] << [[new ContentLineParser(), new CalendarParserImpl()], [
+                new ContentProjection().withComponentNames('VEVENT', 'VTIMEZONE', 'STANDARD').withLimit(1),
+                new ContentProjection().withLimit(1, 'VEVENT'),
+                new ContentProjection().withLimit(2, 'VTIMEZONE', 'VEVENT')]].combinations()
+    }
+
+    def 'verify referenced timezones following the limit are included'() {
+        given: 'a calendar with timezones defined after the events that reference them'
+        String ics = "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                "BEGIN:VEVENT\r\nUID:1\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\nEND:VEVENT\r\n" +
+                "BEGIN:VEVENT\r\nUID:2\r\nDTSTART;TZID=Other/Zone:20200101T090000\r\nEND:VEVENT\r\n" +
+                ['Test/Zone', 'Other/Zone'].collect { "BEGIN:VTIMEZONE\r\nTZID:$it\r\nBEGIN:STANDARD\r\n" +
+                        "DTSTART:19700101T000000\r\nTZOFFSETFROM:+0100\r\nTZOFFSETTO:+0100\r\nEND:STANDARD\r\n" +
+                        "END:VTIMEZONE\r\n" }.join() +
+                "BEGIN:VEVENT\r\nUID:3\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n"
+
+        when: 'a calendar is built with a projection limited to one event'
+        Calendar calendar = new CalendarBuilder(parser,
+                new ContentHandlerContext().withProjection(new ContentProjection().withLimit(1)),
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ics))
+
+        then: 'only the timezone referenced by the event is included'
+        calendar.components.collect { it.name } == ['VEVENT', 'VTIMEZONE']
+        calendar.components[1].timeZoneId.value == 'Test/Zone'
+
+        and: 'the timezone is resolved'
+        calendar.components[0].startDate.timeZone.ID == 'Test/Zone'
+
+        where:
+        parser << [new ContentLineParser(), new CalendarParserImpl()]
+    }
+
+    def 'verify excluded content is skipped by the parser'() {
+        given: 'a calendar with an invalid alarm that is truncated after the second event'
+        String ics = "BEGIN:VCALENDAR\r\n" +
+                "BEGIN:VEVENT\r\nUID:1\r\nBEGIN:VALARM\r\nTRIGGER:invalid\r\nEND:VALARM\r\nEND:VEVENT\r\n" +
+                "BEGIN:VEVENT\r\nUID:2\r\nDTSTART:invalid\r\nEND:VEVENT\r\nBEGIN:VEVENT\r\nUID:3\r\n"
+
+        and: 'a projection of the event UIDs of the first two events'
+        ContentProjection projection = new ContentProjection().withComponentNames('VEVENT')
+                .withPropertyNames('VEVENT', 'UID').withLimit(2)
+
+        when: 'a calendar is built with the projection'
+        Calendar calendar = new CalendarBuilder(new ContentLineParser(),
+                new ContentHandlerContext().withProjection(projection),
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(ics))
+
+        then: 'the excluded content is not parsed'
+        calendar.components.collect { it.getProperty('UID').value } == ['1', '2']
+    }
+
+    def 'verify streaming with a projection'() {
+        given: 'a projection of events'
+        ContentProjection projection = new ContentProjection().withComponentNames('VEVENT')
+
+        expect: 'only the projected components are streamed'
+        new CalendarBuilder(new ContentLineParser(), new ContentHandlerContext().withProjection(projection),
+                TimeZoneRegistryFactory.instance.createRegistry()).stream(new StringReader(ICS))
+                .collect { it.getProperty('UID').value } == ['1', '3']
+    }
+}
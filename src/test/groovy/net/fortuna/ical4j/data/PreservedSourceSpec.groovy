@@ -0,0 +1,93 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory
+import net.fortuna.ical4j.model.component.VEvent
+import net.fortuna.ical4j.model.parameter.Language
+import spock.lang.Specification
+
+class PreservedSourceSpec extends Specification {
+
+    static final String CALENDAR = 'BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n' +
+            'BEGIN:VEVENT\r\nUID:1\r\nORGANIZER;CN="Doe":mailto:jdoe@example.com\r\n' +
+            'DESCRIPTION:Line one\\nLine two\r\nSUMMARY:Original\r\nDTSTART;VALUE=DATE:20200101\r\n' +
+            'END:VEVENT\r\nEND:VCALENDAR\r\n'
+
+    static final String DEFERRED_CALENDAR = 'BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n' +
+            'BEGIN:VEVENT\r\nUID:1\r\nDTSTAMP:20200101T000000Z\r\nDTSTART:2020-01-01\r\n' +
+            'END:VEVENT\r\nEND:VCALENDAR\r\n'
+
+    Calendar parse(CalendarParser parser, String content, boolean preserveSource, boolean deferValues = false) {
+        new CalendarBuilder(parser, new ContentHandlerContext().withPreservedSource(preserveSource)
+                .withDeferredPropertyValues(deferValues),
+                TimeZoneRegistryFactory.instance.createRegistry()).build(new StringReader(content))
+    }
+
+    String output(Calendar calendar) {
+        ByteArrayOutputStream out = []
+        new CalendarOutputter(false).output(calendar, out)
+        out.toString('UTF-8')
+    }
+
+    def 'verify unmodified content is reproduced as parsed'() {
+        expect: 'the original content is output'
+        output(parse(parser, CALENDAR, true)) == CALENDAR
+
+        and: 'content is normalised when source is not preserved'
+        output(parse(parser, CALENDAR, false)) != CALENDAR
+
+        where:
+        parser << [new CalendarParserImpl(), new ContentLineParser()]
+    }
+
+    def 'verify modified properties are re-encoded'() {
+        given: 'a calendar parsed with preserved source'
+        Calendar calendar = parse(parser, CALENDAR, true)
+        VEvent event = calendar.components[0]
+
+        when: 'properties are modified'
+        event.getProperty('SUMMARY').value = 'Updated'
+        event.getProperty('DESCRIPTION').parameters.add(new Language('en'))
+
+        then: 'only the modified properties are re-encoded'
+        output(calendar) == CALENDAR.replace('SUMMARY:Original', 'SUMMARY:Updated')
+                .replace('DESCRIPTION:Line one\\nLine two', 'DESCRIPTION;LANGUAGE=en:Line one\\nLine two')
+
+        and: 'the source of modified properties is discarded'
+        event.getProperty('SUMMARY').source == null
+        event.getProperty('UID').source == 'UID:1'
+
+        where:
+        parser << [new CalendarParserImpl(), new ContentLineParser()]
+    }
+
+    def 'verify deferred values are not parsed to preserve source'() {
+        given: 'a calendar with an invalid value parsed with preserved source and deferred values'
+        Calendar calendar = parse(parser, DEFERRED_CALENDAR, true, true)
+        VEvent event = calendar.components[0]
+
+        expect: 'values remain deferred'
+        event.getProperty('DTSTART').valueDeferred
+        event.getProperty('DTSTAMP').valueDeferred
+
+        and: 'the original content is output without parsing deferred values'
+        output(calendar) == DEFERRED_CALENDAR
+        event.getProperty('DTSTART').valueDeferred
+
+        when: 'a deferred value is parsed'
+        event.getProperty('DTSTAMP').date
+
+        then: 'the source of the unmodified value is retained'
+        !event.getProperty('DTSTAMP').valueDeferred
+        event.getProperty('DTSTAMP').source == 'DTSTAMP:20200101T000000Z'
+
+        when: 'a deferred value is modified'
+        event.getProperty('DTSTAMP').value = '20210101T000000Z'
+
+        then: 'the source is discarded'
+        event.getProperty('DTSTAMP').source == null
+
+        where:
+        parser << [new CalendarParserImpl(), new ContentLineParser()]
+    }
+}
@@ -0,0 +1,114 @@
+package net.fortuna.ical4j.data
+
+import net.fortuna.ical4j.model.Calendar
+import net.fortuna.ical4j.model.TimeZone
+import spock.lang.Specification
+
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class TimeZoneDefinitionCacheSpec extends Specification {
+
+    static String calendar(String offset) {
+        "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Zone\r\nBEGIN:STANDARD\r\nDTSTART:19700101T000000\r\n" +
+                "TZOFFSETFROM:$offset\r\nTZOFFSETTO:$offset\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n" +
+                "BEGIN:VEVENT\r\nUID:1\r\nDTSTART;TZID=Test/Zone:20200101T090000\r\nEND:VEVENT\r\n" +
+                "END:VCALENDAR\r\n"
+    }
+
+    static String calendarWithRules() {
+        "BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n" +
+                "BEGIN:VTIMEZONE\r\nTZID:Test/Rules\r\n" +
+                "BEGIN:STANDARD\r\nDTSTART:16010101T030000\r\nTZOFFSETFROM:+0200\r\nTZOFFSETTO:+0100\r\n" +
+                "RRULE:FREQ=YEARLY;BYDAY=-1SU;BYMONTH=10\r\nEND:STANDARD\r\n" +
+                "BEGIN:DAYLIGHT\r\nDTSTART:16010101T020000\r\nTZOFFSETFROM:+0100\r\nTZOFFSETTO:+0200\r\n" +
+                "RRULE:FREQ=YEARLY;BYDAY=-1SU;BYMONTH=3\r\nEND:DAYLIGHT\r\nEND:VTIMEZONE\r\n" +
+                "BEGIN:VEVENT\r\nUID:1\r\nDTSTART;TZID=Test/Rules:20200101T090000\r\nEND:VEVENT\r\n" +
+                "END:VCALENDAR\r\n"
+    }
+
+    def setup() {
+        TimeZoneDefinitionCache.INSTANCE.clear()
+    }
+
+    def 'verify identical definitions share a timezone'() {
+        when: 'calendars with timezone definitions are parsed by separate builders'
+        CalendarBuilder builder1 = new CalendarBuilder(parser)
+        Calendar calendar1 = builder1.build(new StringReader(calendar('+0100')))
+        CalendarBuilder builder2 = new CalendarBuilder(parser)
+        Calendar calendar2 = builder2.build(new StringReader(calendar(offset)))
+
+        then: 'identical definitions resolve to the same timezone instance'
+        builder1.registry.getTimeZone('Test/Zone').is(builder2.registry.getTimeZone('Test/Zone')) == shared
+        calendar2.components[1].startDate.timeZone.is(builder2.registry.getTimeZone('Test/Zone'))
+
+        and: 'each calendar retains its own definition'
+        !calendar1.components[0].is(calendar2.components[0])
+
+        where:
+        parser                   | offset  | shared
+        new ContentLineParser()  | '+0100' | true
+        new ContentLineParser()  | '+0200' | false
+        new CalendarParserImpl() | '+0100' | true
+        new CalendarParserImpl() | '+0200' | false
+    }
+
+    def 'verify cache is bounded'() {
+        given: 'a cache of a single definition'
+        TimeZoneDefinitionCache cache = new TimeZoneDefinitionCache(1)
+        def vTimeZone1 = new CalendarBuilder().build(new StringReader(calendar('+0100'))).components[0]
+        def vTimeZone2 = new CalendarBuilder().build(new StringReader(calendar('+0200'))).components[0]
+
+        when: 'definitions are cached'
+        TimeZone timezone1 = cache.getTimeZone('1', vTimeZone1)
+        cache.getTimeZone('2', vTimeZone2)
+
+        then: 'the least recently used definition is evicted'
+        !cache.getTimeZone('1', vTimeZone1).is(timezone1)
+    }
+
+    def 'verify disabled cache'() {
+        given: 'a disabled cache'
+        TimeZoneDefinitionCache cache = new TimeZoneDefinitionCache(0)
+        def vTimeZone = new CalendarBuilder().build(new StringReader(calendar('+0100'))).components[0]
+
+        expect: 'a new timezone is returned for each definition'
+        !cache.enabled
+        !cache.getTimeZone('1', vTimeZone).is(cache.getTimeZone('1', vTimeZone))
+    }
+
+    def 'verify identical definitions parsed concurrently'() {
+        given: 'instants either side of daylight savings transitions'
+        def instants = (2000..2030).collectMany { year ->
+            [LocalDateTime.of(year, 1, 15, 12, 0), LocalDateTime.of(year, 7, 15, 12, 0)]
+                    .collect { it.toInstant(ZoneOffset.UTC).toEpochMilli() }
+        }
+
+        and: 'threads that each parse the same definition'
+        def threads = 8
+        def executor = Executors.newFixedThreadPool(threads)
+
+        when: 'offsets are calculated for the first time concurrently'
+        def offsets = (1..100).collectMany {
+            TimeZoneDefinitionCache.INSTANCE.clear()
+            def tasks = (1..threads).collect {
+                { ->
+                    def timezone = new CalendarBuilder().build(new StringReader(calendarWithRules()))
+                            .components[1].startDate.timeZone
+                    instants.collect { timezone.getOffset(it) }
+                } as Callable<List<Integer>>
+            }
+            executor.invokeAll(tasks)*.get()
+        }
+
+        then: 'all threads calculate the correct offsets'
+        offsets.size() == 100 * threads
+        offsets.every { it == [3600000, 7200000] * 31 }
+
+        cleanup:
+        executor.shutdown()
+    }
+}
@@ -37,4 +37,42 @@ class UnfoldingReaderSpec extends Specification {
         def md5 = MessageDigest.getInstance("MD5")
         md5.digest(attach.binary) == md5.digest(new File('gradle/wrapper/gradle-wrapper.jar').bytes)
     }
+
+    def 'verify unfolding of blocks'() {
+        given: 'folded content lines'
+        String input = 'DESCRIPTION:abc\r\n def\r\n\tghi\r\n \r\n jkl\nSUMMARY:mno\n pqr\r\nUID:1\r\n'
+
+        when: 'the content is read in blocks'
+        UnfoldingReader reader = new UnfoldingReader(new StringReader(input), relaxed)
+        StringBuilder unfolded = new StringBuilder()
+        char[] block = new char[blockSize + 2]
+        int read
+        while ((read = reader.read(block, 1, blockSize)) >= 0) {
+            unfolded.append(block, 1, read)
+        }
+
+        then: 'the result is the same as when unfolding individual characters'
+        UnfoldingReader expected = new UnfoldingReader(new StringReader(input), relaxed)
+        StringBuilder unfoldedChars = new StringBuilder()
+        int c
+        while ((c = expected.read()) >= 0) {
+            unfoldedChars.append((char) c)
+        }
+        unfolded as String == unfoldedChars as String
+        reader.linesUnfolded == expected.linesUnfolded
+
+        and: 'all folds are removed'
+        unfolded as String == expectedResult
+
+        where:
+        relaxed | blockSize | expectedResult
+        false   | 1         | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mno\n pqr\r\nUID:1\r\n'
+        false   | 2         | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mno\n pqr\r\nUID:1\r\n'
+        false   | 16        | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mno\n pqr\r\nUID:1\r\n'
+        false   | 1024      | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mno\n pqr\r\nUID:1\r\n'
+        true    | 1         | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mnopqr\r\nUID:1\r\n'
+        true    | 3         | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mnopqr\r\nUID:1\r\n'
+        true    | 17        | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mnopqr\r\nUID:1\r\n'
+        true    | 1024      | 'DESCRIPTION:abcdefghijkl\nSUMMARY:mnopqr\r\nUID:1\r\n'
+    }
 }
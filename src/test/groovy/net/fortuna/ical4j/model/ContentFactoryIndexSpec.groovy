@@ -0,0 +1,53 @@
+package net.fortuna.ical4j.model
+
+import net.fortuna.ical4j.data.DefaultPropertyFactorySupplier
+import net.fortuna.ical4j.model.property.Summary
+import net.fortuna.ical4j.model.property.Version
+import spock.lang.Specification
+
+class ContentFactoryIndexSpec extends Specification {
+
+    def 'verify factory lookup is case-insensitive'() {
+        given: 'an index of the default property factories'
+        def index = ContentFactoryIndex.ofProperties(new DefaultPropertyFactorySupplier().get())
+
+        expect: 'the supporting factory is found regardless of case'
+        index.getFactory(name).get().class == expectedFactory
+
+        where:
+        name        | expectedFactory
+        'VERSION'   | Version.Factory
+        'version'   | Version.Factory
+        'Summary'   | Summary.Factory
+    }
+
+    def 'verify names without a supporting factory'() {
+        given: 'an index of the default property factories'
+        def index = ContentFactoryIndex.ofProperties(new DefaultPropertyFactorySupplier().get())
+
+        expect: 'no factory is found'
+        !index.getFactory('X-UNSUPPORTED').present
+    }
+
+    def 'verify factories not extending Content.Factory are resolved'() {
+        given: 'a factory that only supports a name via a predicate'
+        PropertyFactory factory = Mock()
+        factory.supports('X-CUSTOM') >> true
+
+        and: 'an index including the factory'
+        def index = ContentFactoryIndex.ofProperties([new Version.Factory(), factory])
+
+        expect: 'the factory is found'
+        index.getFactory('x-custom').get() == factory
+        index.getFactory('VERSION').get() instanceof Version.Factory
+    }
+
+    def 'verify the first supporting factory takes precedence'() {
+        given: 'two factories supporting the same name'
+        def first = new Version.Factory()
+        def second = new Version.Factory()
+
+        expect: 'the first factory is used'
+        ContentFactoryIndex.ofProperties([first, second]).getFactory('VERSION').get().is(first)
+    }
+}
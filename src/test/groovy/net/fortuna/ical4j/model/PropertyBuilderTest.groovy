@@ -1,6 +1,13 @@
 package net.fortuna.ical4j.model
 
+import net.fortuna.ical4j.model.parameter.TzId
+import net.fortuna.ical4j.model.parameter.Value
+import net.fortuna.ical4j.model.property.Attendee
+import net.fortuna.ical4j.model.property.DtStart
+import net.fortuna.ical4j.model.property.RRule
+import net.fortuna.ical4j.model.property.Summary
 import net.fortuna.ical4j.model.property.Version
+import net.fortuna.ical4j.util.CompatibilityHints
 import spock.lang.Ignore
 import spock.lang.Specification
 
@@ -20,6 +27,21 @@ class PropertyBuilderTest extends Specification {
         p == Version.VERSION_2_0
     }
 
+    def 'test build property with factory index'() {
+        given: 'a property builder instance'
+        PropertyBuilder builder = [ContentFactoryIndex.ofProperties(Arrays.asList(new Version.Factory()))]
+
+        and: 'builder is initialised'
+        builder.name('version').value("2.0")
+
+        when: 'build method called'
+        Property p = builder.build()
+
+        then: 'resulting property is initialised accordingly'
+        p instanceof Version
+        p.value == '2.0'
+    }
+
     @Ignore
     def 'test build invalid property'() {
         given: 'a property builder instance'
@@ -48,4 +70,54 @@ class PropertyBuilderTest extends Specification {
         then: 'resulting property is initialised accordingly'
         p.value == '[{"DisplayName":"Microsoft Teams Meeting", "LocationCode":"013454"}]'
     }
+
+    def 'test build deferred property'() {
+        given: 'a property builder instance'
+        PropertyBuilder builder = [Arrays.asList(new DtStart.Factory(), new RRule.Factory(),
+                new Attendee.Factory(), new Summary.Factory())]
+
+        and: 'builder is initialised to defer values'
+        builder.name(name).value(value).deferValue(true)
+        parameters.each { builder.parameter(it) }
+
+        when: 'build method called'
+        Property p = builder.build()
+
+        then: 'parsing of supported values is deferred'
+        p.valueDeferred == deferred
+
+        and: 'the resulting property is equivalent to a property parsed immediately'
+        p == new PropertyBuilder(Arrays.asList(new DtStart.Factory(), new RRule.Factory(),
+                new Attendee.Factory(), new Summary.Factory())).name(name).value(value).with {
+            parameters.each { param -> parameter(param) }
+            it
+        }.build()
+        !p.valueDeferred
+
+        where:
+        name       | value                          | parameters                      | deferred
+        'DTSTART'  | '20150403T090000Z'             | []                              | true
+        'DTSTART'  | '20150403'                     | [Value.DATE, new TzId('Japan')] | true
+        'RRULE'    | 'BYDAY=MO;FREQ=WEEKLY'         | []                              | true
+        'ATTENDEE' | 'mailto:test@example.com'      | []                              | true
+        'SUMMARY'  | 'Test'                         | []                              | false
+    }
+
+    def 'test deferred property invalid value'() {
+        given: 'relaxed parsing is disabled'
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, false)
+
+        and: 'a deferred property with an invalid value'
+        Property p = new PropertyBuilder(Arrays.asList(new DtStart.Factory())).name('DTSTART')
+                .value('2015-04-03').deferValue(true).build()
+
+        when: 'the value is accessed'
+        p.date
+
+        then: 'an exception is thrown'
+        thrown(CalendarException)
+
+        cleanup:
+        CompatibilityHints.clearHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)
+    }
 }
@@ -455,4 +455,43 @@ class RecurSpec extends Specification {
         rule	| seed	| start	| expectedDate
         'FREQ=MONTHLY;COUNT=100;INTERVAL=1'	| new DateTime('20180329T025959')	| new DateTime('20170729T030000')	| new DateTime('20180329T025959')
     }
+
+    @Unroll
+    def 'verify dates in a period distant from the seed: #rule'() {
+        given: 'a recurrence rule and seed'
+        Recur recur = [rule]
+        def seed = new DateTime('20100115T093000')
+        def periodStart = new DateTime('20160301T000000')
+        def periodEnd = new DateTime('20160401T000000')
+
+        expect: 'dates in the period match those expanded from the seed'
+        recur.getDates(seed, periodStart, periodEnd, Value.DATE_TIME) ==
+                recur.getDates(seed, seed, periodEnd, Value.DATE_TIME).findAll { !it.before(periodStart) }
+
+        and: 'the next date matches'
+        recur.getNextDate(seed, periodStart) ==
+                recur.getDates(seed, seed, periodEnd, Value.DATE_TIME).find { it.after(periodStart) }
+
+        where:
+        rule << ['FREQ=HOURLY;INTERVAL=7', 'FREQ=DAILY;INTERVAL=3', 'FREQ=WEEKLY;INTERVAL=2', 'FREQ=MONTHLY',
+                 'FREQ=MONTHLY;BYDAY=2TU', 'FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU', 'FREQ=DAILY;COUNT=2250',
+                 'FREQ=WEEKLY;COUNT=200', 'FREQ=MONTHLY;BYMONTHDAY=-1;COUNT=80']
+    }
+
+    def 'verify lazy iteration of an unbounded recurrence'() {
+        given: 'an unbounded recurrence rule'
+        Recur recur = ['FREQ=WEEKLY;BYDAY=MO,WE']
+        def seed = new DateTime('20100104T090000')
+
+        expect: 'the stream returns the requested number of dates from the specified date'
+        recur.stream(seed, new DateTime('20180101T000000')).limit(4).collect { it as String } ==
+                ['20180101T090000', '20180103T090000', '20180108T090000', '20180110T090000']
+
+        and: 'the iterator is exhausted by the count'
+        Recur counted = ['FREQ=DAILY;COUNT=3']
+        def iterator = counted.iterator(seed, seed)
+        [iterator.next(), iterator.next(), iterator.next()]*.toString() ==
+                ['20100104T090000', '20100105T090000', '20100106T090000']
+        !iterator.hasNext()
+    }
 }
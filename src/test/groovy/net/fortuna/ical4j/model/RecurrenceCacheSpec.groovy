@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model
+
+import net.fortuna.ical4j.model.parameter.Value
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class RecurrenceCacheSpec extends Specification {
+
+    def 'verify windows contained by a cached expansion are answered from the cache'() {
+        given: 'a recurrence cache'
+        RecurrenceCache cache = [1000]
+
+        and: 'a recurrence rule'
+        Recur recur = ['FREQ=WEEKLY;BYDAY=MO,WE']
+        def seed = new DateTime('20100104T090000Z')
+
+        when: 'a window is expanded'
+        def dates = cache.getDates(recur, seed, new DateTime('20180101T000000Z'),
+                new DateTime('20180301T000000Z'), Value.DATE_TIME)
+
+        then: 'the expansion is cached'
+        dates == recur.getDates(seed, new DateTime('20180101T000000Z'), new DateTime('20180301T000000Z'),
+                Value.DATE_TIME)
+        cache.missCount == 1
+        cache.hitCount == 0
+        cache.size() == 1
+
+        when: 'a contained window is requested'
+        def subset = cache.getDates(recur, seed, new DateTime('20180103T090000Z'),
+                new DateTime('20180115T090000Z'), Value.DATE_TIME)
+
+        then: 'the dates are provided by the cache'
+        subset == recur.getDates(seed, new DateTime('20180103T090000Z'), new DateTime('20180115T090000Z'),
+                Value.DATE_TIME)
+        subset*.toString() == ['20180103T090000Z', '20180108T090000Z', '20180110T090000Z', '20180115T090000Z']
+        cache.hitCount == 1
+
+        when: 'an overlapping window is requested'
+        cache.getDates(recur, seed, new DateTime('20180201T000000Z'), new DateTime('20180401T000000Z'),
+                Value.DATE_TIME)
+
+        then: 'the recurrence is expanded again'
+        cache.missCount == 2
+        cache.size() == 1
+    }
+
+    def 'verify expansions are distinguished by seed timezone and value type'() {
+        given: 'a recurrence cache'
+        RecurrenceCache cache = [1000]
+
+        and: 'seeds with the same local time in different timezones'
+        def registry = TimeZoneRegistryFactory.instance.createRegistry()
+        Recur recur = ['FREQ=DAILY']
+        def start = new DateTime('20180101T000000Z')
+        def end = new DateTime('20180110T000000Z')
+
+        when: 'each is expanded'
+        def london = cache.getDates(recur, new DateTime('20170101T090000', registry.getTimeZone('Europe/London')),
+                start, end, Value.DATE_TIME)
+        def sydney = cache.getDates(recur, new DateTime('20170101T090000', registry.getTimeZone('Australia/Sydney')),
+                start, end, Value.DATE_TIME)
+        def dates = cache.getDates(recur, new Date('20170101'), start, end, Value.DATE)
+
+        then: 'separate expansions are cached'
+        cache.size() == 3
+        cache.missCount == 3
+        london[0] != sydney[0]
+        dates[0] == new Date('20180101')
+        !(dates[0] instanceof DateTime)
+    }
+
+    @Unroll
+    def 'verify cached dates match expanded dates for seed #seed'() {
+        given: 'a recurrence cache'
+        RecurrenceCache cache = [1000]
+        Recur recur = ['FREQ=WEEKLY']
+
+        and: 'a cached expansion'
+        cache.getDates(recur, seed, new DateTime('20200101T000000'), new DateTime('20200301T000000'), value)
+
+        when: 'a contained window is requested'
+        def cached = cache.getDates(recur, seed, new DateTime('20200110T000000'), new DateTime('20200201T000000'),
+                value)
+        def expanded = recur.getDates(seed, new DateTime('20200110T000000'), new DateTime('20200201T000000'),
+                value)
+
+        then: 'the cached dates are identical to the expanded dates'
+        cache.hitCount == 1
+        cached*.toString() == expanded*.toString()
+        cached.collect { it instanceof DateTime ? it.utc : null } ==
+                expanded.collect { it instanceof DateTime ? it.utc : null }
+        cached.collect { it instanceof DateTime ? it.timeZone : null } ==
+                expanded.collect { it instanceof DateTime ? it.timeZone : null }
+
+        where:
+        seed                              | value
+        new DateTime('20200106T090000')   | Value.DATE_TIME
+        new DateTime('20200106T090000Z')  | Value.DATE_TIME
+        new Date('20200106')              | Value.DATE_TIME
+        new Date('20200106')              | Value.DATE
+    }
+
+    def 'verify least recently used expansions are evicted'() {
+        given: 'a recurrence cache bounded to 15 instants'
+        RecurrenceCache cache = [15]
+        def start = new DateTime('20180101T000000Z')
+        def end = new DateTime('20180110T000000Z')
+
+        when: 'more expansions are cached than the cache can hold'
+        ['FREQ=DAILY', 'FREQ=DAILY;INTERVAL=2', 'FREQ=DAILY;INTERVAL=3'].each {
+            cache.getDates(new Recur(it), new DateTime('20170101T090000Z'), start, end, Value.DATE_TIME)
+        }
+
+        then: 'the eldest expansion is evicted'
+        cache.evictionCount == 1
+        cache.size() == 2
+        cache.weight == 4 + 1 + 3 + 1
+
+        when: 'the cache is cleared'
+        cache.clear()
+
+        then: 'no expansions remain'
+        cache.size() == 0
+        cache.weight == 0
+    }
+
+    def 'verify a disabled cache expands every request'() {
+        given: 'a disabled recurrence cache'
+        RecurrenceCache cache = [0]
+        Recur recur = ['FREQ=DAILY']
+        def seed = new DateTime('20170101T090000Z')
+
+        when: 'a window is requested twice'
+        2.times {
+            cache.getDates(recur, seed, new DateTime('20180101T000000Z'), new DateTime('20180110T000000Z'),
+                    Value.DATE_TIME)
+        }
+
+        then: 'nothing is cached'
+        !cache.enabled
+        cache.size() == 0
+        cache.hitCount == 0
+    }
+
+    def 'verify concurrent use of the cache'() {
+        given: 'a recurrence cache'
+        RecurrenceCache cache = [100]
+        def rules = ['FREQ=DAILY', 'FREQ=WEEKLY;BYDAY=TU,TH', 'FREQ=MONTHLY;BYMONTHDAY=1,15']
+        def seed = new DateTime('20170101T090000Z')
+        def start = new DateTime('20180101T000000Z')
+        def end = new DateTime('20180201T000000Z')
+        def expected = rules.collectEntries { [it, new Recur(it).getDates(seed, start, end, Value.DATE_TIME)] }
+
+        when: 'many threads request expansions'
+        def executor = Executors.newFixedThreadPool(4)
+        def results = (1..200).collect { i ->
+            executor.submit({
+                def rule = rules[i % rules.size()]
+                cache.getDates(new Recur(rule), seed, start, end, Value.DATE_TIME) == expected[rule]
+            } as java.util.concurrent.Callable)
+        }*.get()
+        executor.shutdown()
+        executor.awaitTermination(10, TimeUnit.SECONDS)
+
+        then: 'all results are correct and the cache remains bounded'
+        results.every()
+        cache.hitCount + cache.missCount == 200
+        cache.weight <= 100
+    }
+}
@@ -7,7 +7,7 @@ import net.fortuna.ical4j.model.WeekDayList
 import net.fortuna.ical4j.model.parameter.Value
 import spock.lang.Specification
 
-import static net.fortuna.ical4j.model.Recur.Frequency.WEEKLY
+import static net.fortuna.ical4j.model.Recur.Frequency.*
 
 class ByDayRuleTest extends Specification {
 
@@ -25,5 +25,9 @@ class ByDayRuleTest extends Specification {
         where:
         rulePart    | frequency              | dates                  | expectedResult
         WeekDay.FR  | WEEKLY | [new Date('20150103')] | [new Date('20150102')]
+        WeekDay.FR  | DAILY  | [new Date('20150102'), new Date('20150103')] | [new Date('20150102')]
+        new WeekDay(WeekDay.TU, 2)  | MONTHLY | [new Date('20150115')] | [new Date('20150113')]
+        new WeekDay(WeekDay.SU, -1) | YEARLY  | [new Date('20150601')] | [new Date('20151227')]
+        WeekDay.MO  | YEARLY | [new Date('20150601')] | (0..51).collect { new Date(new Date('20150105').time + it * 7 * 86400000L) }
     }
 }
@@ -6,6 +6,7 @@ import net.fortuna.ical4j.model.NumberList
 import net.fortuna.ical4j.model.parameter.Value
 import spock.lang.Specification
 
+import static net.fortuna.ical4j.model.Recur.Frequency.MINUTELY
 import static net.fortuna.ical4j.model.Recur.Frequency.YEARLY
 
 class ByHourRuleTest extends Specification {
@@ -24,5 +25,6 @@ class ByHourRuleTest extends Specification {
         where:
         rulePart | frequency    | dates                              | expectedResult
         '1'      | YEARLY   | [new DateTime('20150103T000000Z')] | [new DateTime('20150103T010000Z')]
+        '1,23'   | MINUTELY | [new DateTime('20150103T000000Z'), new DateTime('20150103T010000Z'), new DateTime('20150103T230500Z')] | [new DateTime('20150103T010000Z'), new DateTime('20150103T230500Z')]
     }
 }
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 /**
  * $Id$
@@ -65,4 +66,39 @@ public class FoldingWriterTest extends TestCase {
         writer.write("VERSION:2.0");
         LOG.info(sw.getBuffer().toString());
     }
+
+    /**
+     * Test folding of multi-byte characters at the octet limit.
+     */
+    public void testMultiByteFolding() throws IOException {
+        StringBuilder b = new StringBuilder("SUMMARY:");
+        for (int i = 0; i < 100; i++) {
+            b.append("\u00e9\u20ac\ud83d\ude00");
+        }
+        StringWriter sw = new StringWriter();
+        FoldingWriter writer = new FoldingWriter(sw, FoldingWriter.MAX_FOLD_LENGTH);
+        writer.write(b.toString());
+        writer.write(Strings.LINE_SEPARATOR);
+        writer.close();
+
+        String folded = sw.toString();
+        for (String line : folded.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= FoldingWriter.MAX_FOLD_LENGTH);
+            assertFalse(Character.isHighSurrogate(line.charAt(line.length() - 1)));
+        }
+        assertEquals(b.toString() + Strings.LINE_SEPARATOR, folded.replace("\r\n ", ""));
+    }
+
+    /**
+     * Test a surrogate pair written across separate writes is not folded.
+     */
+    public void testSplitSurrogatePair() throws IOException {
+        StringWriter sw = new StringWriter();
+        FoldingWriter writer = new FoldingWriter(sw, 10);
+        writer.write("SUMMARY");
+        writer.write('\ud83d');
+        writer.write('\ude00');
+        writer.close();
+        assertEquals("SUMMARY\r\n \ud83d\ude00", sw.toString());
+    }
 }